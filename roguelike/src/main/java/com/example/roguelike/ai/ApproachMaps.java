@@ -0,0 +1,82 @@
+package com.example.roguelike.ai;
+
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.TileChangeListener;
+import com.example.roguelike.world.TileType;
+
+// Shared navigation fields for every enemy on a map: an "approach" map of path distance to the player
+// and a derived "flee" map for keeping away. Rebuilt only when the player moves or a tile changes,
+// and only out to maxRange steps, so AI cost is paid once per player move instead of once per enemy.
+public class ApproachMaps implements TileChangeListener {
+    // Values are in tenths of a step so the flee map can use the usual -1.2x weighting in integers
+    private static final int STEP = 10;
+    private static final int FLEE_WEIGHT_NUMERATOR = -12;
+    private static final int FLEE_WEIGHT_DENOMINATOR = 10;
+
+    private final GameMap map;
+    private final int maxRange;
+    private final DijkstraMap approach;
+    private final DijkstraMap flee;
+    private int playerX = Integer.MIN_VALUE;
+    private int playerY = Integer.MIN_VALUE;
+    private boolean dirty = true;
+
+    public ApproachMaps(GameMap map, int maxRange) {
+        this.map = map;
+        this.maxRange = maxRange;
+        this.approach = new DijkstraMap(map.getMapWidthInTiles(), map.getMapHeightInTiles(), windowRadius(maxRange));
+        this.flee = new DijkstraMap(map.getMapWidthInTiles(), map.getMapHeightInTiles(), windowRadius(maxRange));
+        map.addTileChangeListener(this);
+    }
+
+    public void update(int newPlayerX, int newPlayerY) {
+        if (!dirty && newPlayerX == playerX && newPlayerY == playerY) {
+            return;
+        }
+        playerX = newPlayerX;
+        playerY = newPlayerY;
+        dirty = false;
+
+        approach.clear(playerX, playerY);
+        approach.seed(playerX, playerY, 0);
+        approach.relax(map.getWalkabilityMap(), STEP, maxRange * STEP);
+
+        // Flee map: scaled, negated approach values relaxed again, so fleeing actors head for
+        // exits and open space rather than into the nearest corner.
+        flee.clear(playerX, playerY);
+        for (int i = 0; i < approach.getTouchedCount(); i++) {
+            int cell = approach.getTouchedCell(i);
+            int value = approach.getAt(cell) * FLEE_WEIGHT_NUMERATOR / FLEE_WEIGHT_DENOMINATOR;
+            flee.seed(cell % map.getMapWidthInTiles(), cell / map.getMapWidthInTiles(), value);
+        }
+        flee.relax(map.getWalkabilityMap(), STEP, 0);
+    }
+
+    // Furthest a build reaches from the player: approach values stop at maxRange steps, and a flee seed
+    // at d steps (value -1.2d steps) spreads another 1.2d steps before its value climbs back to 0.
+    private static int windowRadius(int maxRange) {
+        int fleeReach = (maxRange * (FLEE_WEIGHT_DENOMINATOR - FLEE_WEIGHT_NUMERATOR) + FLEE_WEIGHT_DENOMINATOR - 1) / FLEE_WEIGHT_DENOMINATOR;
+        return fleeReach + 1;
+    }
+
+    // Path distance to the player in steps, or -1 if out of range or unreachable.
+    public int distanceToPlayer(int x, int y) {
+        int value = approach.get(x, y);
+        return value == DijkstraMap.UNREACHABLE ? -1 : value / STEP;
+    }
+
+    // Cell index of the next step towards the player, or -1 if already there or out of range.
+    public int approachStep(int x, int y) {
+        return approach.downhillStep(x, y);
+    }
+
+    // Cell index of the next step away from the player, or -1 if there is nowhere better to go.
+    public int fleeStep(int x, int y) {
+        return flee.downhillStep(x, y);
+    }
+
+    @Override
+    public void tileChanged(int x, int y, TileType oldType, TileType newType) {
+        dirty = true;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.roguelike.ai;
+
+import com.example.roguelike.world.WalkabilityMap;
+import java.util.Arrays;
+
+// Multi-source distance field over the walkable cells of a map. Seed one or more cells with
+// starting values, relax, then any actor picks its next step by looking at its four neighbours.
+// Only cells written by the last build are reset, so a build costs O(area reached), not O(map).
+// Values are kept for a square window of cells around a centre chosen on clear(), sized by the
+// caller to hold everything a build can reach, so memory follows that reach rather than the map.
+// Cells are still addressed by map cell index (y * mapWidth + x); everything outside the window is UNREACHABLE.
+public class DijkstraMap {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int width;
+    private final int height;
+    private final int windowSide;
+    private int windowLeft;
+    private int windowTop;
+    private final int[] values; // By window cell, (y - windowTop) * windowSide + (x - windowLeft)
+    private final int[] touched; // Window cells written since the last clear()
+    private int touchedCount;
+    private final IntMinHeap frontier = new IntMinHeap();
+
+    public DijkstraMap(int width, int height, int windowRadius) {
+        this.width = width;
+        this.height = height;
+        this.windowSide = 2 * windowRadius + 1;
+        this.values = new int[windowSide * windowSide];
+        this.touched = new int[windowSide * windowSide];
+        Arrays.fill(values, UNREACHABLE);
+    }
+
+    // Forgets the last build and centres the window on (centerX, centerY) for the next one.
+    public void clear(int centerX, int centerY) {
+        for (int i = 0; i < touchedCount; i++) {
+            values[touched[i]] = UNREACHABLE;
+        }
+        touchedCount = 0;
+        frontier.clear();
+        windowLeft = centerX - windowSide / 2;
+        windowTop = centerY - windowSide / 2;
+    }
+
+    public void seed(int x, int y, int value) {
+        int local = local(x, y);
+        if (local < 0) return;
+        set(local, value);
+    }
+
+    // Dijkstra from the seeded cells. Cells whose value would exceed maxValue are left UNREACHABLE.
+    public void relax(WalkabilityMap walkable, int stepCost, int maxValue) {
+        while (!frontier.isEmpty()) {
+            int key = frontier.topKey();
+            int cell = frontier.pop();
+            if (key != values[cell]) continue; // Stale entry
+            int next = key + stepCost;
+            if (next > maxValue) continue;
+            int column = cell % windowSide;
+            int row = cell / windowSide;
+            int x = windowLeft + column;
+            int y = windowTop + row;
+            if (column + 1 < windowSide && walkable.isWalkable(x + 1, y) && next < values[cell + 1]) set(cell + 1, next);
+            if (column > 0 && walkable.isWalkable(x - 1, y) && next < values[cell - 1]) set(cell - 1, next);
+            if (row + 1 < windowSide && walkable.isWalkable(x, y + 1) && next < values[cell + windowSide]) set(cell + windowSide, next);
+            if (row > 0 && walkable.isWalkable(x, y - 1) && next < values[cell - windowSide]) set(cell - windowSide, next);
+        }
+    }
+
+    public int get(int x, int y) {
+        int local = local(x, y);
+        return local < 0 ? UNREACHABLE : values[local];
+    }
+
+    // Cells reached by the last build, in the order they were first written.
+    public int getTouchedCount() {
+        return touchedCount;
+    }
+
+    // Map cell index of the i-th touched cell.
+    public int getTouchedCell(int i) {
+        int local = touched[i];
+        return (windowTop + local / windowSide) * width + windowLeft + local % windowSide;
+    }
+
+    public int getAt(int cell) {
+        return get(cell % width, cell / width);
+    }
+
+    // Cell index of the neighbour with the lowest value below the current cell's, or -1 if none.
+    // Neighbours are tried right, left, down, up so ties resolve the same way every time.
+    public int downhillStep(int x, int y) {
+        int best = -1;
+        int bestValue = get(x, y);
+        int value = get(x + 1, y);
+        if (value < bestValue) { best = y * width + x + 1; bestValue = value; }
+        value = get(x - 1, y);
+        if (value < bestValue) { best = y * width + x - 1; bestValue = value; }
+        value = get(x, y + 1);
+        if (value < bestValue) { best = (y + 1) * width + x; bestValue = value; }
+        value = get(x, y - 1);
+        if (value < bestValue) { best = (y - 1) * width + x; }
+        return best;
+    }
+
+    // Window cell for map cell (x, y), or -1 if it is off the map or outside the window.
+    private int local(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+        int column = x - windowLeft;
+        int row = y - windowTop;
+        if (column < 0 || column >= windowSide || row < 0 || row >= windowSide) return -1;
+        return row * windowSide + column;
+    }
+
+    private void set(int cell, int value) {
+        if (values[cell] == UNREACHABLE) {
+            touched[touchedCount++] = cell;
+        }
+        if (value < values[cell]) {
+            values[cell] = value;
+            frontier.push(cell, value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.roguelike.ai;
+
+import java.util.Arrays;
+
+// Binary min-heap of int nodes keyed by int priorities, backed by reusable arrays.
+// No decrease-key: callers push duplicates and skip stale entries when popping.
+final class IntMinHeap {
+    private int[] nodes = new int[256];
+    private int[] keys = new int[256];
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int topKey() {
+        return keys[0];
+    }
+
+    void push(int node, int key) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (keys[up] <= key) break;
+            nodes[i] = nodes[up];
+            keys[i] = keys[up];
+            i = up;
+        }
+        nodes[i] = node;
+        keys[i] = key;
+    }
+
+    int pop() {
+        int top = nodes[0];
+        int lastNode = nodes[--size];
+        int lastKey = keys[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (keys[child] >= lastKey) break;
+            nodes[i] = nodes[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        nodes[i] = lastNode;
+        keys[i] = lastKey;
+        return top;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.roguelike.ai;
+
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.WalkabilityMap;
+import java.util.Arrays;
+
+// Shortest paths on a GameMap's walkability bitset for 4-directional, uniform-cost movement.
+// Supports plain A* and jump point search (the 4-connected variant: vertical runs branch
+// horizontally anywhere, horizontal runs only turn vertically at forced neighbours).
+// Search state lives in primitive arrays pooled per thread, so steady-state queries allocate nothing.
+// A search only looks at the square of SEARCH_RADIUS cells around the start, which keeps that state
+// the same size however large the map is; targets further away than that count as unreachable.
+public class Pathfinder {
+    public enum Algorithm {
+        A_STAR,
+        JUMP_POINT_SEARCH
+    }
+
+    public static final int NO_PATH = -1;
+    public static final int SEARCH_RADIUS = 64; // Well beyond the distance at which enemies start chasing
+
+    private static final ThreadLocal<SearchBuffers> BUFFERS = ThreadLocal.withInitial(SearchBuffers::new);
+
+    private final Algorithm algorithm;
+    private final int maxScannedCells; // Bounds the cost of a query, e.g. when the target is unreachable
+
+    public Pathfinder(Algorithm algorithm, int maxScannedCells) {
+        this.algorithm = algorithm;
+        this.maxScannedCells = maxScannedCells;
+    }
+
+    // Returns the cell index (y * mapWidth + x) of the first step from start towards target, or NO_PATH.
+    public int nextStep(GameMap map, int startX, int startY, int targetX, int targetY) {
+        SearchBuffers buffers = BUFFERS.get();
+        int length = findPath(map, startX, startY, targetX, targetY, buffers.singleStep);
+        return length > 0 ? buffers.singleStep[0] : NO_PATH;
+    }
+
+    // Writes the cell indices of the path (excluding the start) into outPath, truncated to its length.
+    // Returns the full path length in steps, 0 if start == target, or NO_PATH.
+    public int findPath(GameMap map, int startX, int startY, int targetX, int targetY, int[] outPath) {
+        WalkabilityMap walkable = map.getWalkabilityMap();
+        int width = walkable.getWidth();
+        int height = walkable.getHeight();
+        if (startX < 0 || startX >= width || startY < 0 || startY >= height ||
+            targetX < 0 || targetX >= width || targetY < 0 || targetY >= height) {
+            return NO_PATH;
+        }
+        if (startX == targetX && startY == targetY) return 0;
+        if (Math.abs(targetX - startX) > SEARCH_RADIUS || Math.abs(targetY - startY) > SEARCH_RADIUS) return NO_PATH;
+
+        // Nodes are numbered within the window: (y - top) * side + (x - left)
+        int side = 2 * SEARCH_RADIUS + 1;
+        int left = startX - SEARCH_RADIUS;
+        int top = startY - SEARCH_RADIUS;
+        int start = SEARCH_RADIUS * side + SEARCH_RADIUS;
+        int target = (targetY - top) * side + (targetX - left);
+        Search search = BUFFERS.get().begin(walkable, left, top, side, target, maxScannedCells);
+        boolean found = algorithm == Algorithm.JUMP_POINT_SEARCH ? search.jumpPointSearch(start) : search.aStar(start);
+        return found ? search.writePath(start, outPath) : NO_PATH;
+    }
+
+    // Direction codes for the arrival direction of a node
+    private static final byte FROM_START = 0;
+    private static final byte MOVING_HORIZONTALLY = 1;
+    private static final byte MOVING_VERTICALLY = 2;
+
+    private static final class SearchBuffers {
+        final int[] singleStep = new int[1];
+        final Search search = new Search();
+
+        Search begin(WalkabilityMap walkable, int left, int top, int side, int target, int budget) {
+            search.reset(walkable, left, top, side, target, budget);
+            return search;
+        }
+    }
+
+    private static final class Search {
+        private WalkabilityMap walkable;
+        private int left; // Map position of window cell (0, 0)
+        private int top;
+        private int width; // Window side
+        private int target;
+        private int targetX;
+        private int targetY;
+        private int budget;
+
+        // Per-window-cell state, valid only where seenStamp/closedStamp equal the current stamp
+        private int[] g = new int[0];
+        private int[] parent = new int[0];
+        private byte[] arrival = new byte[0];
+        private int[] seenStamp = new int[0];
+        private int[] closedStamp = new int[0];
+        private int stamp;
+
+        private final IntMinHeap openSet = new IntMinHeap(); // Keyed on f, stale entries skipped via closedStamp
+
+        void reset(WalkabilityMap walkable, int left, int top, int side, int target, int budget) {
+            this.walkable = walkable;
+            this.left = left;
+            this.top = top;
+            this.width = side;
+            this.target = target;
+            this.targetX = target % width;
+            this.targetY = target / width;
+            this.budget = budget;
+            int cells = side * side;
+            if (g.length < cells) {
+                g = new int[cells];
+                parent = new int[cells];
+                arrival = new byte[cells];
+                seenStamp = new int[cells];
+                closedStamp = new int[cells];
+                stamp = 0;
+            }
+            if (++stamp == 0) { // Wrapped: clear so old stamps can't collide
+                Arrays.fill(seenStamp, 0);
+                Arrays.fill(closedStamp, 0);
+                stamp = 1;
+            }
+            openSet.clear();
+        }
+
+        boolean aStar(int start) {
+            open(start, -1, 0, FROM_START);
+            while (!openSet.isEmpty()) {
+                int node = openSet.pop();
+                if (closedStamp[node] == stamp) continue;
+                closedStamp[node] = stamp;
+                if (node == target) return true;
+                if (--budget < 0) return false;
+                int x = node % width;
+                int y = node / width;
+                relax(node, x + 1, y, 1, MOVING_HORIZONTALLY);
+                relax(node, x - 1, y, 1, MOVING_HORIZONTALLY);
+                relax(node, x, y + 1, 1, MOVING_VERTICALLY);
+                relax(node, x, y - 1, 1, MOVING_VERTICALLY);
+            }
+            return false;
+        }
+
+        boolean jumpPointSearch(int start) {
+            open(start, -1, 0, FROM_START);
+            while (!openSet.isEmpty()) {
+                int node = openSet.pop();
+                if (closedStamp[node] == stamp) continue;
+                closedStamp[node] = stamp;
+                if (node == target) return true;
+                if (budget < 0) return false;
+                int x = node % width;
+                int y = node / width;
+                int dx = 0;
+                int dy = 0;
+                int parentNode = parent[node];
+                if (parentNode >= 0) {
+                    dx = Integer.signum(x - parentNode % width);
+                    dy = Integer.signum(y - parentNode / width);
+                }
+
+                if (arrival[node] == FROM_START || arrival[node] == MOVING_VERTICALLY) {
+                    // Vertical runs may continue or branch either way horizontally
+                    if (dy >= 0) jumpVerticalFrom(node, x, y, 1);
+                    if (dy <= 0) jumpVerticalFrom(node, x, y, -1);
+                    jumpHorizontalFrom(node, x, y, 1);
+                    jumpHorizontalFrom(node, x, y, -1);
+                } else {
+                    // Horizontal runs continue straight and turn only where forced
+                    jumpHorizontalFrom(node, x, y, dx);
+                    if (forcedVertical(x, y, dx, 1)) jumpVerticalFrom(node, x, y, 1);
+                    if (forcedVertical(x, y, dx, -1)) jumpVerticalFrom(node, x, y, -1);
+                }
+            }
+            return false;
+        }
+
+        private void jumpHorizontalFrom(int node, int x, int y, int dx) {
+            int jumpX = jumpHorizontal(x, y, dx);
+            if (jumpX != Integer.MIN_VALUE) {
+                relax(node, jumpX, y, Math.abs(jumpX - x), MOVING_HORIZONTALLY);
+            }
+        }
+
+        private void jumpVerticalFrom(int node, int x, int y, int dy) {
+            int jumpY = jumpVertical(x, y, dy);
+            if (jumpY != Integer.MIN_VALUE) {
+                relax(node, x, jumpY, Math.abs(jumpY - y), MOVING_VERTICALLY);
+            }
+        }
+
+        // Returns the x of the next jump point along the row, or Integer.MIN_VALUE.
+        private int jumpHorizontal(int x, int y, int dx) {
+            while (true) {
+                x += dx;
+                if (--budget < 0 || !passable(x, y)) return Integer.MIN_VALUE;
+                if (x == targetX && y == targetY) return x;
+                if (forcedVertical(x, y, dx, 1) || forcedVertical(x, y, dx, -1)) return x;
+            }
+        }
+
+        // Returns the y of the next jump point along the column, or Integer.MIN_VALUE.
+        private int jumpVertical(int x, int y, int dy) {
+            while (true) {
+                y += dy;
+                if (--budget < 0 || !passable(x, y)) return Integer.MIN_VALUE;
+                if (x == targetX && y == targetY) return y;
+                if (jumpHorizontal(x, y, 1) != Integer.MIN_VALUE || jumpHorizontal(x, y, -1) != Integer.MIN_VALUE) return y;
+            }
+        }
+
+        // Moving horizontally into (x, y): the vertical neighbour is forced when the cell diagonally
+        // behind it is blocked, since no vertical-first path could have reached it more cheaply.
+        private boolean forcedVertical(int x, int y, int dx, int dy) {
+            return passable(x, y + dy) && !passable(x - dx, y + dy);
+        }
+
+        private boolean passable(int x, int y) {
+            if (x < 0 || x >= width || y < 0 || y >= width) return false; // Window edge
+            return walkable.isWalkable(left + x, top + y) || (x == targetX && y == targetY);
+        }
+
+        private void relax(int from, int x, int y, int cost, byte direction) {
+            if (!passable(x, y)) return;
+            int node = y * width + x;
+            if (closedStamp[node] == stamp) return;
+            int newG = g[from] + cost;
+            if (seenStamp[node] != stamp || newG < g[node]) {
+                open(node, from, newG, direction);
+            }
+        }
+
+        private void open(int node, int from, int nodeG, byte direction) {
+            seenStamp[node] = stamp;
+            g[node] = nodeG;
+            parent[node] = from;
+            arrival[node] = direction;
+            int h = Math.abs(node % width - targetX) + Math.abs(node / width - targetY);
+            openSet.push(node, nodeG + h);
+        }
+
+        // Expands jump-point parents into single steps, writing the first outPath.length of them as map cells.
+        int writePath(int start, int[] outPath) {
+            int mapWidth = walkable.getWidth();
+            int length = g[target];
+            int position = length;
+            int node = target;
+            while (node != start) {
+                int from = parent[node];
+                int step = Math.abs(node - from) < width ? Integer.signum(from - node) : Integer.signum(from - node) * width;
+                for (int cell = node; cell != from; cell += step) {
+                    position--;
+                    if (position < outPath.length) {
+                        outPath[position] = (top + cell / width) * mapWidth + left + cell % width;
+                    }
+                }
+                node = from;
+            }
+            return length;
+        }
+    }
+}
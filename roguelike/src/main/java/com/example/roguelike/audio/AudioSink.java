@@ -0,0 +1,9 @@
+package com.example.roguelike.audio;
+
+// Where mixed 16-bit little-endian mono PCM goes. write() may block until the device has room; it
+// is only ever called from the audio thread.
+public interface AudioSink {
+    void write(byte[] buffer, int length);
+
+    void close();
+}
@@ -0,0 +1,30 @@
+package com.example.roguelike.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+// Plays through the default javax.sound.sampled output line. Writes block once the line's buffer is
+// full, which is what paces the audio thread.
+public class JavaSoundSink implements AudioSink {
+    private final SourceDataLine line;
+
+    public JavaSoundSink(int sampleRate, int bufferBytes) throws LineUnavailableException {
+        AudioFormat format = new AudioFormat(sampleRate, 16, 1, true, false);
+        this.line = AudioSystem.getSourceDataLine(format);
+        this.line.open(format, bufferBytes);
+        this.line.start();
+    }
+
+    @Override
+    public void write(byte[] buffer, int length) {
+        line.write(buffer, 0, length);
+    }
+
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.roguelike.audio;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Discards audio for headless runs or machines without an output line, but keeps real-time pace so
+// the mixer behaves as it would with a device.
+public class NullAudioSink implements AudioSink {
+    private final int sampleRate;
+    private long deadline = System.nanoTime();
+
+    public NullAudioSink(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void write(byte[] buffer, int length) {
+        deadline = Math.max(deadline, System.nanoTime()) + (length / 2) * 1_000_000_000L / sampleRate;
+        LockSupport.parkNanos(deadline - System.nanoTime());
+    }
+
+    @Override
+    public void close() {
+    }
+}
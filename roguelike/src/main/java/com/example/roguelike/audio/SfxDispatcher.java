@@ -0,0 +1,153 @@
+package com.example.roguelike.audio;
+
+import com.example.roguelike.events.EventKind;
+import com.example.roguelike.events.EventRing;
+import java.util.Arrays;
+import javax.sound.sampled.LineUnavailableException;
+
+// Plays the simulation's SOUND events on a dedicated audio thread. Each audio frame it drains the
+// event ring, keeps only the loudest instance of each cue posted since the last frame, attenuates by
+// distance from the player, holds at most MAX_VOICES voices (stealing the quietest for a louder cue)
+// and mixes one frame of PCM into the sink. The simulation only ever writes to the ring, so nothing
+// here can hold up a tick. One dispatcher and its output line last for the whole program; a new game
+// just points it at the new session's ring with listenTo().
+public class SfxDispatcher implements EventRing.Handler, Runnable {
+    public static final int SAMPLE_RATE = 22050;
+    private static final int FRAME_SAMPLES = 512; // About 23 ms of audio per mix
+    private static final int LINE_BUFFER_FRAMES = 4; // Device latency of about 90 ms
+    private static final int MAX_VOICES = 8;
+    private static final double ROLLOFF_TILES = 4; // A cue this far away plays at half volume
+    private static final int MAX_AUDIBLE_TILES = 24;
+    private static final SoundCue[] CUES = SoundCue.values();
+
+    private volatile EventRing.Reader reader; // Replaced by listenTo(); read only by the audio thread
+    private final SoundBank bank;
+    private final AudioSink sink;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final float[] pendingGains = new float[CUES.length]; // Loudest gain per cue this frame, 0 if none
+    // Voices, by slot; a free slot has cue -1
+    private final int[] voiceCues = new int[MAX_VOICES];
+    private final int[] voicePositions = new int[MAX_VOICES];
+    private final float[] voiceGains = new float[MAX_VOICES];
+    private final int[] mix = new int[FRAME_SAMPLES];
+    private final byte[] output = new byte[FRAME_SAMPLES * 2];
+    // Merged into a louder duplicate, out of earshot, or over the voice limit. Only the audio thread
+    // writes it, so ++ loses nothing; volatile so other threads see the count.
+    private volatile long cuesDropped;
+
+    private SfxDispatcher(EventRing ring, AudioSink sink) {
+        this.reader = ring.newReader();
+        this.bank = new SoundBank(SAMPLE_RATE);
+        this.sink = sink;
+        Arrays.fill(voiceCues, -1);
+        this.thread = new Thread(this, "sfx");
+        this.thread.setDaemon(true);
+    }
+
+    public static SfxDispatcher start(EventRing ring, AudioSink sink) {
+        SfxDispatcher dispatcher = new SfxDispatcher(ring, sink);
+        dispatcher.thread.start();
+        return dispatcher;
+    }
+
+    // The default output line, or a NullAudioSink if there is none (e.g. a headless server).
+    public static AudioSink openDefaultSink() {
+        try {
+            return new JavaSoundSink(SAMPLE_RATE, FRAME_SAMPLES * 2 * LINE_BUFFER_FRAMES);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            return new NullAudioSink(SAMPLE_RATE);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                reader.drain(this);
+                startPendingVoices();
+                mixFrame();
+                sink.write(output, output.length);
+            }
+        } finally {
+            sink.close();
+        }
+    }
+
+    // Switches to another ring, e.g. a new session's, from any thread. Cues still unread in the old
+    // ring are skipped; voices already playing finish normally.
+    public void listenTo(EventRing ring) {
+        reader = ring.newReader();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    // From any thread, for diagnostics.
+    public long getCuesDropped() {
+        return cuesDropped;
+    }
+
+    // Audio thread only.
+    @Override
+    public void onEvent(EventKind kind, int a, int b, int c) {
+        if (kind != EventKind.SOUND) return;
+        double distance = Math.sqrt((double) b * b + (double) c * c);
+        if (distance > MAX_AUDIBLE_TILES) {
+            cuesDropped++;
+            return;
+        }
+        float gain = (float) (1 / (1 + distance / ROLLOFF_TILES));
+        if (pendingGains[a] > 0) {
+            cuesDropped++; // Same cue twice in one frame would just sound louder; keep the nearer one
+        }
+        pendingGains[a] = Math.max(pendingGains[a], gain);
+    }
+
+    private void startPendingVoices() {
+        for (int cue = 0; cue < pendingGains.length; cue++) {
+            float gain = pendingGains[cue];
+            if (gain == 0) continue;
+            pendingGains[cue] = 0;
+
+            int slot = 0;
+            for (int v = 1; v < MAX_VOICES; v++) { // Free slot if any, else the quietest voice
+                if (voiceCues[slot] != -1 && (voiceCues[v] == -1 || voiceGains[v] < voiceGains[slot])) {
+                    slot = v;
+                }
+            }
+            if (voiceCues[slot] != -1) {
+                cuesDropped++; // Either the stolen voice or this cue goes unheard
+                if (voiceGains[slot] >= gain) continue;
+            }
+            voiceCues[slot] = cue;
+            voicePositions[slot] = 0;
+            voiceGains[slot] = gain;
+        }
+    }
+
+    private void mixFrame() {
+        Arrays.fill(mix, 0);
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceCues[v] == -1) continue;
+            short[] pcm = bank.get(voiceCues[v]);
+            int position = voicePositions[v];
+            int n = Math.min(FRAME_SAMPLES, pcm.length - position);
+            float gain = voiceGains[v];
+            for (int k = 0; k < n; k++) {
+                mix[k] += (int) (pcm[position + k] * gain);
+            }
+            voicePositions[v] = position + n;
+            if (voicePositions[v] >= pcm.length) {
+                voiceCues[v] = -1;
+            }
+        }
+        for (int k = 0; k < FRAME_SAMPLES; k++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[k])); // Clip rather than wrap
+            output[2 * k] = (byte) sample;
+            output[2 * k + 1] = (byte) (sample >> 8);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.roguelike.audio;
+
+import java.util.Random;
+
+// Every cue rendered once to 16-bit mono PCM, so playback only copies and scales samples.
+public class SoundBank {
+    private static final SoundCue[] CUES = SoundCue.values();
+
+    private final short[][] samples = new short[CUES.length][];
+
+    public SoundBank(int sampleRate) {
+        Random noise = new Random(1L); // Same seed every run, so cues always sound the same
+        for (SoundCue cue : CUES) {
+            int length = cue.getMillis() * sampleRate / 1000;
+            short[] pcm = new short[length];
+            double phase = 0;
+            for (int i = 0; i < length; i++) {
+                double t = (double) i / length;
+                double hz = cue.getStartHz() + (cue.getEndHz() - cue.getStartHz()) * t;
+                phase += 2 * Math.PI * hz / sampleRate;
+                double tone = Math.signum(Math.sin(phase)) * 0.5 + Math.sin(phase) * 0.5; // Soft square
+                double sample = tone * (1 - cue.getNoise()) + (noise.nextDouble() * 2 - 1) * cue.getNoise();
+                double envelope = Math.min(1, i / (sampleRate * 0.004)) * (1 - t) * (1 - t); // 4 ms attack, then decay
+                pcm[i] = (short) (sample * envelope * 0.6 * Short.MAX_VALUE);
+            }
+            samples[cue.ordinal()] = pcm;
+        }
+    }
+
+    public short[] get(SoundCue cue) {
+        return samples[cue.ordinal()];
+    }
+
+    short[] get(int cueOrdinal) {
+        return samples[cueOrdinal];
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.roguelike.audio;
+
+// Sound effects the simulation can post. Each is synthesized once by SoundBank from a pitch sweep
+// mixed with some noise, under a decaying envelope, so no audio files are needed.
+public enum SoundCue {
+    PLAYER_ATTACK_HIT("Player_Attack_Hit", 300, 120, 90, 0.7),
+    PLAYER_DAMAGED("Player_Damaged", 160, 110, 140, 0.3),
+    PLAYER_HEAL("Player_Heal", 520, 940, 260, 0.0),
+    PLAYER_DIES("Player_Dies", 320, 70, 700, 0.2),
+    ENEMY_DAMAGED("Enemy_Damaged", 240, 180, 70, 0.6),
+    ENEMY_DIES("Enemy_Dies", 420, 90, 320, 0.4),
+    DOOR_OPEN("Door_Open", 90, 60, 180, 0.8),
+    ITEM_PICKUP("Item_Pickup", 880, 1320, 120, 0.0);
+
+    private final String name;
+    private final double startHz;
+    private final double endHz;
+    private final int millis;
+    private final double noise; // 0 = pure tone, 1 = pure noise
+
+    SoundCue(String name, double startHz, double endHz, int millis, double noise) {
+        this.name = name;
+        this.startHz = startHz;
+        this.endHz = endHz;
+        this.millis = millis;
+        this.noise = noise;
+    }
+
+    public String getName() { return name; }
+    public double getStartHz() { return startHz; }
+    public double getEndHz() { return endHz; }
+    public int getMillis() { return millis; }
+    public double getNoise() { return noise; }
+}
@@ -0,0 +1,103 @@
+package com.example.roguelike.core;
+
+// Runs the simulation at a fixed rate and renders as often as the frame cap allows, independently.
+// Elapsed real time goes into an accumulator that is drained in whole ticks; whatever is left over
+// becomes the interpolation alpha (0..1) handed to the renderer. If the simulation falls behind, at
+// most maxTicksPerFrame catch-up ticks run per frame and the rest of the backlog is dropped, so a slow
+// tick can't snowball into ever more ticks per frame (the "spiral of death").
+public class FixedStepLoop {
+    public interface Simulation {
+        void tick();
+    }
+
+    public interface Renderer {
+        void render(double alpha);
+    }
+
+    private final long tickNanos;
+    private final long frameNanos;
+    private final int maxTicksPerFrame;
+    private final Simulation simulation;
+    private final Renderer renderer;
+
+    private volatile boolean running;
+    private long accumulator;
+    private long lastTime;
+
+    // Counters for pacing diagnostics
+    private long ticksRun;
+    private long framesRendered;
+    private long droppedTicks; // Ticks skipped because catch-up hit maxTicksPerFrame
+    private long catchUpFrames; // Frames that had to run (merge) more than one tick
+
+    public FixedStepLoop(int ticksPerSecond, int maxFramesPerSecond, int maxTicksPerFrame, Simulation simulation, Renderer renderer) {
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = 1_000_000_000L / maxFramesPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+        this.simulation = simulation;
+        this.renderer = renderer;
+        this.lastTime = System.nanoTime();
+    }
+
+    // Blocks the calling thread until stop() is called or the thread is interrupted.
+    public void run() {
+        running = true;
+        lastTime = System.nanoTime();
+        long nextFrame = lastTime;
+        while (running) {
+            long now = System.nanoTime();
+            advance(now);
+            nextFrame = Math.max(nextFrame + frameNanos, now);
+
+            // Sleep until whichever comes first: the next tick is due or the next frame may be drawn
+            long nextTick = now + (tickNanos - accumulator);
+            long wake = Math.min(nextFrame, nextTick);
+            long sleepNanos = wake - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        running = false;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    // One frame: run the ticks that are due at time now, then render with the leftover fraction.
+    // Exposed separately from run() so a caller can drive the loop from its own clock.
+    public void advance(long now) {
+        long elapsed = now - lastTime;
+        lastTime = now;
+        accumulator += Math.max(0, elapsed);
+
+        int ticksThisFrame = 0;
+        while (accumulator >= tickNanos && ticksThisFrame < maxTicksPerFrame) {
+            simulation.tick();
+            accumulator -= tickNanos;
+            ticksThisFrame++;
+        }
+        ticksRun += ticksThisFrame;
+        if (ticksThisFrame > 1) {
+            catchUpFrames++;
+        }
+        if (accumulator >= tickNanos) {
+            long dropped = accumulator / tickNanos;
+            droppedTicks += dropped;
+            accumulator %= tickNanos; // Reported through getDroppedTicks(); no I/O on the loop thread
+        }
+
+        renderer.render((double) accumulator / tickNanos);
+        framesRendered++;
+    }
+
+    public long getTicksRun() { return ticksRun; }
+    public long getFramesRendered() { return framesRendered; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public long getCatchUpFrames() { return catchUpFrames; }
+}
@@ -5,35 +5,34 @@ package com.example.roguelike.core;
 
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
+import com.example.roguelike.audio.SfxDispatcher;
 import com.example.roguelike.entities.Player;
-import com.example.roguelike.entities.Enemy;
-import com.example.roguelike.entities.EnemyType; // Added
+import com.example.roguelike.events.EventDrain;
+import com.example.roguelike.events.StdoutEventPrinter;
+import com.example.roguelike.rendering.ActiveRenderer;
 import com.example.roguelike.rendering.GameRenderer;
-import com.example.roguelike.world.GameMap;
-import com.example.roguelike.world.Room;
-import com.example.roguelike.items.Item; // Added
-import com.example.roguelike.items.ItemType; // Added
 import java.awt.Dimension;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.Ran
 import java.util.Iterator
 
 public class GameManager implements KeyListener {
 
-    private Player player;
+    private GameSession session; // All game logic; this class only adds the window, input and loop
     private GameRenderer gameRenderer;
-    private GameMap gameMap;
-    private List<Enemy> enemies;
-    private List<Item> itemsOnMap; 
-    private List<String> gameMessages; 
-    private long lastEnemyDeathTime = 0; 
-    private static final int ENEMY_DEATH_PAUSE_MS = 100; 
+    private ActiveRenderer activeRenderer; // Set when the loop draws frames itself; null uses Swing repaints
+    private static final int TICKS_PER_SECOND = 60; // Same pace as the old 16 ms sleep loop
+    private static final int MAX_FRAMES_PER_SECOND = 120;
+    private static final int MAX_CATCH_UP_TICKS = 5; // Beyond this, a stalled loop drops ticks instead of catching up
 
     private GameState currentGameState; // Added
     private JFrame frame; // Added
+    private FixedStepLoop gameLoop;
+    private static final long CONSOLE_DRAIN_MILLIS = 50;
+    private EventDrain consoleOutput; // Prints the session's events off the game thread
+    private SfxDispatcher soundEffects; // Plays the current session's sound cues on the audio thread; lives across games
 
     public GameManager(JFrame frame) { // Updated constructor
         this.frame = frame;
@@ -49,148 +48,61 @@ public class GameManager implements KeyListener {
         int panelPixelWidth = frame.getContentPane().getWidth(); // Use frame size
         int panelPixelHeight = frame.getContentPane().getHeight();
 
-        this.gameMap = new GameMap(panelPixelWidth, panelPixelHeight);
-        this.enemies = new ArrayList<>();
-        this.itemsOnMap = new ArrayList<>();
-        this.gameMessages = new ArrayList<>();
-        this.lastEnemyDeathTime = 0;
-        
-
-        if (!this.gameMap.getRooms().isEmpty()) {
-            Room firstRoom = this.gameMap.getRooms().get(0);
-            int playerTileX = firstRoom.getX() + firstRoom.getWidth() / 2;
-            int playerTileY = firstRoom.getY() + firstRoom.getHeight() / 2;
-            this.player = new Player(playerTileX, playerTileY);
+        // The world has a fixed size of its own; the window only decides how much of it the camera shows
+        this.session = new GameSession(ThreadLocalRandom.current().nextLong());
+        if (this.consoleOutput != null) {
+            this.consoleOutput.stop();
+        }
+        this.consoleOutput = EventDrain.start("console-events", session.getEvents(), new StdoutEventPrinter(), CONSOLE_DRAIN_MILLIS);
+        if (this.soundEffects != null) {
+            this.soundEffects.listenTo(session.getEvents()); // Keeps the open line; reopening it races the old one's close
         } else {
-            this.player = new Player(1, 1); 
+            this.soundEffects = SfxDispatcher.start(session.getEvents(), SfxDispatcher.openDefaultSink());
         }
 
-        spawnEnemies();
-        spawnItems();
-
         // Re-initialize or update GameRenderer with new game data
         if (this.gameRenderer != null) {
-            this.gameRenderer.updateGameData(this.gameMap, this.player, this.enemies, this.itemsOnMap);
+            this.gameRenderer.updateGameData(session.getGameMap(), session.getPlayer(), session.getEnemies(), session.getItemsOnMap(),
+                                             session.getPlayerView(), session.getOccupancy()); // One step, so no frame mixes two games
         } else { // Should not happen if constructor initializes it
-            this.gameRenderer = new GameRenderer(this, this.gameMap, this.player, this.enemies, this.itemsOnMap);
+            this.gameRenderer = new GameRenderer(this, session.getGameMap(), session.getPlayer(), session.getEnemies(), session.getItemsOnMap());
             this.gameRenderer.setPreferredSize(new Dimension(panelPixelWidth, panelPixelHeight));
+            this.gameRenderer.setPlayerView(session.getPlayerView());
+            this.gameRenderer.setOccupancy(session.getOccupancy());
         }
         this.gameRenderer.setGameOver(false); // Reset game over state in renderer
     }
 
-
-
-    private void spawnEnemies() {
-        if (this.gameMap.getRooms() == null || this.gameMap.getRooms().isEmpty() || this.player == null) {
-            return; 
-        }
-        Random random = new Random();
-        int numberOfEnemiesToSpawn = 3 + random.nextInt(3); 
-
-        for (int i = 0; i < numberOfEnemiesToSpawn; i++) {
-            Room spawnRoom = this.gameMap.getRooms().get(random.nextInt(this.gameMap.getRooms().size()));
-            int ex = spawnRoom.getX() + random.nextInt(spawnRoom.getWidth());
-            int ey = spawnRoom.getY() + random.nextInt(spawnRoom.getHeight());
-
-            if (this.gameMap.isWalkable(ex, ey) && (ex != this.player.getX() || ey != this.player.getY())) {
-                EnemyType newEnemyType = EnemyType.values()[random.nextInt(EnemyType.values().length)];
-                this.enemies.add(new Enemy(ex, ey, random.nextLong(), this.player, newEnemyType));
-            }
-        }
-    }
-
-    private void spawnItems() {
-        if (this.gameMap.getRooms() == null || this.gameMap.getRooms().isEmpty() || this.player == null) {
-            return;
-        }
-        Random random = new Random();
-        int numberOfItemsToSpawn = 2 + random.nextInt(2); 
-
-
-        for (int i = 0; i < numberOfItemsToSpawn; i++) {
-            Room spawnRoom = this.gameMap.getRooms().get(random.nextInt(this.gameMap.getRooms().size()));
-            int ix = spawnRoom.getX() + random.nextInt(spawnRoom.getWidth());
-            int iy = spawnRoom.getY() + random.nextInt(spawnRoom.getHeight());
-
-            boolean positionOccupied = (ix == this.player.getX() && iy == this.player.getY());
-            if (positionOccupied) continue; 
-
-
-            for (Enemy enemy : enemies) {
-                if (enemy.getX() == ix && enemy.getY() == iy) {
-                    positionOccupied = true;
-                    break;
-                }
-            }
-            if (positionOccupied) continue; 
-
-
-            if (this.gameMap.isWalkable(ix, iy)) {
-                ItemType itemType = ItemType.values()[random.nextInt(ItemType.values().length)];
-                this.itemsOnMap.add(new Item(itemType, ix, iy));
-            }
-        }
-    }
-
     public void startGameLoop() {
-        while (true) { 
-            if (currentGameState == GameState.PLAYING) {
-                if (lastEnemyDeathTime > 0 && System.currentTimeMillis() - lastEnemyDeathTime < ENEMY_DEATH_PAUSE_MS) {
-                    gameRenderer.repaint(); 
-                    try { Thread.sleep(16); } catch (InterruptedException e) { Thread.currentThread().interrupt(); break; }
-                    continue; 
+        gameLoop = new FixedStepLoop(TICKS_PER_SECOND, MAX_FRAMES_PER_SECOND, MAX_CATCH_UP_TICKS, this::tick, alpha -> {
+            if (gameRenderer != null) {
+                gameRenderer.setInterpolationAlpha(alpha);
+                if (activeRenderer != null) {
+                    activeRenderer.render(); // Drawn and shown right now, on this thread
                 } else {
-                    lastEnemyDeathTime = 0; 
-                }
-
-                player.update(gameMap);
-                for (Enemy enemy : enemies) {
-                    enemy.update(gameMap);
-                }
-
-                if (!gameMessages.isEmpty()) {
-                    for (String message : gameMessages) {
-                        System.out.println(message); 
-                    }
-                    gameMessages.clear();
-                }
-                
-                if (!player.isAlive()) {
-                    System.out.println("Game Over!");
-                    System.out.println("SFX: Player_Dies"); 
-                    currentGameState = GameState.GAME_OVER; 
-                    // gameRenderer.setGameOver(true); // GameRenderer will check state
-                }
-
-                boolean enemyDiedThisFrame = false;
-                Iterator<Enemy> enemyIterator = enemies.iterator();
-                while(enemyIterator.hasNext()){
-                    Enemy enemy = enemyIterator.next();
-                    if (!enemy.isAlive()) {
-                        gameMessages.add("An " + enemy.getType().toString().toLowerCase() + " has been defeated! You gain " + enemy.getExperienceValue() + " XP.");
-                        player.addExperience(enemy.getExperienceValue(), gameMessages);
-                        System.out.println("SFX: Enemy_Dies"); 
-                        enemyDiedThisFrame = true;
-                        enemyIterator.remove();
-                    }
-                }
-                if (enemyDiedThisFrame && lastEnemyDeathTime == 0) {
-                     lastEnemyDeathTime = System.currentTimeMillis();
+                    gameRenderer.requestFrame(); // Repaints only what changed since the last frame
                 }
-            } else if (currentGameState == GameState.MAIN_MENU) {
-                // Main menu logic (mostly input handling)
-            } else if (currentGameState == GameState.GAME_OVER) {
-                // Game over logic (mostly input handling)
             }
-            
-            if (gameRenderer != null) gameRenderer.repaint();
+        });
+        gameLoop.run();
+    }
 
-            try {
-                Thread.sleep(16); 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    // One fixed simulation step. Rendering happens separately, driven by gameLoop.
+    private void tick() {
+        if (currentGameState == GameState.PLAYING) {
+            if (gameRenderer != null) {
+                gameRenderer.runSimulationTick(session::tick); // Never while the panel paints
+            } else {
+                session.tick();
+            }
+            if (session.isGameOver()) {
+                currentGameState = GameState.GAME_OVER; 
+                // gameRenderer.setGameOver(true); // GameRenderer will check state
             }
+        } else if (currentGameState == GameState.MAIN_MENU) {
+            // Main menu logic (mostly input handling)
+        } else if (currentGameState == GameState.GAME_OVER) {
+            // Game over logic (mostly input handling)
         }
     }
 
@@ -200,8 +112,23 @@ public class GameManager implements KeyListener {
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
             GameManager mainGame = new GameManager(frame); // Pass frame
+            boolean activeRendering = false;
+            for (String arg : args) {
+                if (arg.equals("--software-framebuffer")) {
+                    mainGame.gameRenderer.setFramebufferRendering(true); // Parallel int[] rasterizer instead of Java2D
+                } else if (arg.equals("--active-rendering")) {
+                    activeRendering = true; // BufferStrategy page flipping driven by the loop
+                }
+            }
             // mainGame.setFrame(frame); // Alternative if using setter
-            frame.add(mainGame.gameRenderer); 
+            if (activeRendering) {
+                mainGame.activeRenderer = new ActiveRenderer(mainGame.gameRenderer, MAX_FRAMES_PER_SECOND);
+                mainGame.activeRenderer.setPreferredSize(mainGame.gameRenderer.getPreferredSize());
+                mainGame.activeRenderer.addKeyListener(mainGame); // The canvas takes keyboard focus from the frame
+                frame.add(mainGame.activeRenderer);
+            } else {
+                frame.add(mainGame.gameRenderer); 
+            }
             frame.pack(); 
             frame.setLocationRelativeTo(null); 
             frame.setVisible(true);
@@ -214,7 +141,10 @@ public class GameManager implements KeyListener {
         });
     }
 
-    public Player getPlayer() { return player; } // Added getter
+    public Player getPlayer() { return session != null ? session.getPlayer() : null; } // Added getter
+    public GameSession getSession() { return session; }
+    public FixedStepLoop getGameLoop() { return gameLoop; } // Tick/frame/drop counters for diagnostics
+    public ActiveRenderer getActiveRenderer() { return activeRenderer; } // Frame time percentiles and missed frames, if active
     public GameState getCurrentGameState() { return currentGameState; } // Added getter
     public JFrame getFrame() { return frame; } // Added getter
 
@@ -223,41 +153,30 @@ public class GameManager implements KeyListener {
         int keyCode = e.getKeyCode();
 
         if (currentGameState == GameState.PLAYING) {
-            if (!player.isAlive()) return; // Don't process game input if player is dead but state not yet GAME_OVER
+            if (!session.getPlayer().isAlive()) return; // Don't process game input if player is dead but state not yet GAME_OVER
 
 
             switch (keyCode) {
                 case KeyEvent.VK_UP:
                 case KeyEvent.VK_W:
-                    player.move(0, -1, gameMap, this.enemies, this.gameMessages); 
+                    session.submit(GameSession.Command.MOVE_UP); 
                     break;
                 case KeyEvent.VK_DOWN:
                 case KeyEvent.VK_S:
-                    player.move(0, 1, gameMap, this.enemies, this.gameMessages);  
+                    session.submit(GameSession.Command.MOVE_DOWN);  
                     break;
                 case KeyEvent.VK_LEFT:
                 case KeyEvent.VK_A:
-                    player.move(-1, 0, gameMap, this.enemies, this.gameMessages); 
+                    session.submit(GameSession.Command.MOVE_LEFT); 
                     break;
                 case KeyEvent.VK_RIGHT:
                 case KeyEvent.VK_D:
-                    player.move(1, 0, gameMap, this.enemies, this.gameMessages);  
+                    session.submit(GameSession.Command.MOVE_RIGHT);  
                     break;
                 case KeyEvent.VK_H: 
-                    player.useHealthPotion(gameMessages);
-
+                    session.submit(GameSession.Command.USE_HEALTH_POTION);
                     break;
             }
-            // Item Pickup Logic (after movement or action)
-            Iterator<Item> itemIterator = itemsOnMap.iterator();
-            while (itemIterator.hasNext()) {
-                Item item = itemIterator.next();
-                if (item.getX() == player.getX() && item.getY() == player.getY()) {
-                    player.pickUpItem(item, gameMessages);
-                    itemIterator.remove(); 
-                    break; 
-                }
-            }
 
         } else if (currentGameState == GameState.MAIN_MENU) {
             if (keyCode == KeyEvent.VK_ENTER || keyCode == KeyEvent.VK_S) {
@@ -0,0 +1,280 @@
+package com.example.roguelike.core;
+
+import com.example.roguelike.ai.ApproachMaps;
+import com.example.roguelike.audio.SoundCue;
+import com.example.roguelike.entities.EnemyStore;
+import com.example.roguelike.entities.EnemyType;
+import com.example.roguelike.entities.OccupancyIndex;
+import com.example.roguelike.entities.Player;
+import com.example.roguelike.events.EventKind;
+import com.example.roguelike.events.EventRing;
+import com.example.roguelike.events.MessageLog;
+import com.example.roguelike.items.Item;
+import com.example.roguelike.items.ItemType;
+import com.example.roguelike.world.ChunkedTileStore;
+import com.example.roguelike.world.FieldOfView;
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.GenerationStreams;
+import com.example.roguelike.world.Room;
+import com.example.roguelike.world.TileType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+// One running game: map, player, enemies and items, advanced by commands and fixed ticks.
+// Uses no Swing or AWT classes, so bots and soak tests can run it headless:
+//
+//     GameSession session = new GameSession(seed, 80, 50);
+//     session.apply(GameSession.Command.MOVE_RIGHT);
+//     session.step(60);
+//
+// GameManager is the Swing front end over a session.
+public class GameSession {
+    public enum Command {
+        MOVE_UP,
+        MOVE_DOWN,
+        MOVE_LEFT,
+        MOVE_RIGHT,
+        USE_HEALTH_POTION
+    }
+
+    public static final int DEFAULT_ROOM_COUNT = 5;
+    // The playing field is a paged world of fixed size, independent of the window; the camera shows part of it
+    public static final int WORLD_WIDTH_IN_TILES = 512;
+    public static final int WORLD_HEIGHT_IN_TILES = 512;
+    private static final int TILES_PER_ROOM = 1024; // One room attempt per 32 x 32 tiles
+    private static final int ACTIVE_CHUNK_RADIUS = 2; // Chunks kept around the player: at least 128 tiles each way
+    private static final int MAX_RESIDENT_CHUNKS = 36; // The 5 x 5 active square plus room for far-off enemies
+    private static final int ENEMY_DEATH_PAUSE_TICKS = 6; // About 100 ms at 60 ticks per second
+    private static final int ENEMY_NAVIGATION_RANGE = 16; // Steps; covers the largest detection radius with room to spare
+    public static final int PLAYER_SIGHT_RADIUS = 12; // At least the largest enemy detection radius
+    private static final int EVENT_CAPACITY = 4096; // Over a minute of a busy fight at 60 ticks per second
+    private static final int MESSAGE_LOG_SIZE = 100;
+
+    private final GameMap gameMap;
+    private final ChunkedTileStore pagedWorld; // null when the map is held fully in memory
+    private final Player player;
+    private final EnemyStore enemies;
+    private final ApproachMaps enemyNavigation; // Shared approach/flee maps, rebuilt when the player moves
+    private final FieldOfView playerView; // Recomputed only when the player moves or a door/wall changes in view
+    private final OccupancyIndex occupancy; // Actor and item positions by tile
+    private final List<Item> itemsOnMap = new ArrayList<>();
+    private final EventRing events = new EventRing(EVENT_CAPACITY); // Messages and sound cues; written only by the simulation thread
+    private final MessageLog messageLog = new MessageLog(events, MESSAGE_LOG_SIZE);
+    private final Queue<Command> submittedCommands = new ConcurrentLinkedQueue<>();
+    private int pauseTicksRemaining;
+    private long tickCount;
+    private boolean gameOver;
+
+    // A world of the standard size.
+    public GameSession(long seed) {
+        this(seed, WORLD_WIDTH_IN_TILES, WORLD_HEIGHT_IN_TILES);
+    }
+
+    // Same seed and size always give the same level, enemies and items. The world is paged in chunks
+    // around the player, so only its surroundings are held in memory however large it is.
+    public GameSession(long seed, int widthInTiles, int heightInTiles) {
+        this(new ChunkedTileStore(widthInTiles, heightInTiles, TileType.WALL, MAX_RESIDENT_CHUNKS, ACTIVE_CHUNK_RADIUS), seed);
+    }
+
+    private GameSession(ChunkedTileStore world, long seed) {
+        this(new GameMap(world, roomCountFor(world.getWidth(), world.getHeight()), seed), world);
+    }
+
+    public GameSession(GameMap gameMap) {
+        this(gameMap, null);
+    }
+
+    private GameSession(GameMap gameMap, ChunkedTileStore pagedWorld) {
+        this.gameMap = gameMap;
+        this.pagedWorld = pagedWorld;
+
+        if (!this.gameMap.getRooms().isEmpty()) {
+            Room firstRoom = this.gameMap.getRooms().get(0);
+            int playerTileX = firstRoom.getX() + firstRoom.getWidth() / 2;
+            int playerTileY = firstRoom.getY() + firstRoom.getHeight() / 2;
+            this.player = new Player(playerTileX, playerTileY);
+        } else {
+            this.player = new Player(1, 1);
+        }
+        this.player.setEvents(this.events);
+
+        this.occupancy = new OccupancyIndex(this.gameMap.getMapWidthInTiles(), this.gameMap.getMapHeightInTiles());
+        this.occupancy.placeActor(OccupancyIndex.PLAYER, this.player.getX(), this.player.getY());
+        this.enemyNavigation = new ApproachMaps(this.gameMap, ENEMY_NAVIGATION_RANGE);
+        this.playerView = new FieldOfView(this.gameMap);
+        this.playerView.compute(this.player.getX(), this.player.getY(), PLAYER_SIGHT_RADIUS);
+        this.enemies = new EnemyStore(this.player);
+        this.enemies.setNavigation(this.enemyNavigation);
+        this.enemies.setPlayerView(this.playerView);
+        this.enemies.setOccupancy(this.occupancy);
+        this.enemies.setEvents(this.events);
+        spawnEnemies();
+        spawnItems();
+        this.gameMap.focusOn(this.player.getX(), this.player.getY()); // Page out what generation and spawning touched
+    }
+
+    // DEFAULT_ROOM_COUNT on a screen-sized map, scaled with the area for larger worlds.
+    private static int roomCountFor(int widthInTiles, int heightInTiles) {
+        return Math.max(DEFAULT_ROOM_COUNT, (int) ((long) widthInTiles * heightInTiles / TILES_PER_ROOM));
+    }
+
+    // Spawn counts are per DEFAULT_ROOM_COUNT rooms, so big worlds are populated as densely as small ones.
+    private int spawnScale() {
+        return Math.max(1, this.gameMap.getRooms().size() / DEFAULT_ROOM_COUNT);
+    }
+
+    private void spawnEnemies() {
+        if (this.gameMap.getRooms() == null || this.gameMap.getRooms().isEmpty()) {
+            return;
+        }
+        RandomGenerator random = this.gameMap.getStreams().stream(GenerationStreams.Stage.ENEMIES);
+        int numberOfEnemiesToSpawn = (3 + random.nextInt(3)) * spawnScale();
+
+        for (int i = 0; i < numberOfEnemiesToSpawn; i++) {
+            Room spawnRoom = this.gameMap.getRooms().get(random.nextInt(this.gameMap.getRooms().size()));
+            int ex = spawnRoom.getX() + random.nextInt(spawnRoom.getWidth());
+            int ey = spawnRoom.getY() + random.nextInt(spawnRoom.getHeight());
+
+            if (this.gameMap.isWalkable(ex, ey) && !this.occupancy.hasActorAt(ex, ey)) {
+                EnemyType newEnemyType = EnemyType.values()[random.nextInt(EnemyType.values().length)];
+                this.enemies.spawn(ex, ey, random.nextLong(), newEnemyType);
+            }
+        }
+    }
+
+    private void spawnItems() {
+        if (this.gameMap.getRooms() == null || this.gameMap.getRooms().isEmpty()) {
+            return;
+        }
+        RandomGenerator random = this.gameMap.getStreams().stream(GenerationStreams.Stage.ITEMS);
+        int numberOfItemsToSpawn = (2 + random.nextInt(2)) * spawnScale();
+
+
+        for (int i = 0; i < numberOfItemsToSpawn; i++) {
+            Room spawnRoom = this.gameMap.getRooms().get(random.nextInt(this.gameMap.getRooms().size()));
+            int ix = spawnRoom.getX() + random.nextInt(spawnRoom.getWidth());
+            int iy = spawnRoom.getY() + random.nextInt(spawnRoom.getHeight());
+
+            if (this.occupancy.hasActorAt(ix, iy)) continue; // Player or an enemy stands here
+
+
+            if (this.gameMap.isWalkable(ix, iy)) {
+                ItemType itemType = ItemType.values()[random.nextInt(ItemType.values().length)];
+                Item item = new Item(itemType, ix, iy, random);
+                this.itemsOnMap.add(item);
+                this.occupancy.addItem(item);
+            }
+        }
+    }
+
+    // Queues a player action from any thread (e.g. the Swing event thread); it is applied at the start
+    // of the next tick, so only the simulation thread ever touches game state or writes events.
+    public void submit(Command command) {
+        submittedCommands.add(command);
+    }
+
+    // Applies one player action immediately, on the calling thread. Ignored once the game is over.
+    public void apply(Command command) {
+        if (gameOver || !player.isAlive()) return;
+
+        switch (command) {
+            case MOVE_UP:
+                player.move(0, -1, gameMap, this.occupancy, this.enemies);
+                break;
+            case MOVE_DOWN:
+                player.move(0, 1, gameMap, this.occupancy, this.enemies);
+                break;
+            case MOVE_LEFT:
+                player.move(-1, 0, gameMap, this.occupancy, this.enemies);
+                break;
+            case MOVE_RIGHT:
+                player.move(1, 0, gameMap, this.occupancy, this.enemies);
+                break;
+            case USE_HEALTH_POTION:
+                player.useHealthPotion();
+                break;
+        }
+        gameMap.focusOn(player.getX(), player.getY()); // Let paged maps drop chunks far from the player
+        assert holdsOnlyChunksNearPlayer() : "Chunks far from the player are still in memory";
+        // Item Pickup Logic (after movement or action)
+        Item item = occupancy.getItemAt(player.getX(), player.getY());
+        if (item != null) {
+            player.pickUpItem(item);
+            occupancy.removeItem(item);
+            itemsOnMap.remove(item);
+        }
+    }
+
+    public void step(int ticks) {
+        for (int i = 0; i < ticks && !gameOver; i++) {
+            tick();
+        }
+    }
+
+    // One fixed simulation step.
+    public void tick() {
+        if (gameOver) return;
+        tickCount++;
+        player.setJustDamaged(false); // Damage flashes last one tick
+        enemies.expireDamageFlashes();
+        Command command;
+        while ((command = submittedCommands.poll()) != null) {
+            apply(command);
+        }
+        if (pauseTicksRemaining > 0) {
+            pauseTicksRemaining--; // Brief freeze after a kill
+            return;
+        }
+
+        player.update(gameMap);
+        enemyNavigation.update(player.getX(), player.getY());
+        playerView.compute(player.getX(), player.getY(), PLAYER_SIGHT_RADIUS);
+        enemies.updateAll(gameMap);
+
+        if (!player.isAlive()) {
+            events.publish(EventKind.PLAYER_DIED);
+            events.publish(EventKind.SOUND, SoundCue.PLAYER_DIES.ordinal(), 0, 0);
+            gameOver = true;
+        }
+
+        boolean enemyDiedThisTick = false;
+        for (int i = enemies.size() - 1; i >= 0; i--) { // Backwards, since removal swaps the last enemy in
+            if (!enemies.isAlive(i)) {
+                events.publish(EventKind.ENEMY_DEFEATED, enemies.getType(i).ordinal(), enemies.getExperienceValue(i));
+                events.publish(EventKind.SOUND, SoundCue.ENEMY_DIES.ordinal(), enemies.getX(i) - player.getX(), enemies.getY(i) - player.getY());
+                player.addExperience(enemies.getExperienceValue(i));
+                enemyDiedThisTick = true;
+                enemies.removeAt(i); // Also frees its tile in the occupancy index
+            }
+        }
+        if (enemyDiedThisTick) {
+            pauseTicksRemaining = ENEMY_DEATH_PAUSE_TICKS;
+        }
+    }
+
+    // After focusOn, only the active square of chunks around the player may stay resident, and the
+    // walkability layer may only hold blocks whose tiles are resident.
+    private boolean holdsOnlyChunksNearPlayer() {
+        return pagedWorld == null || (pagedWorld.getResidentChunkCount() <= pagedWorld.getActiveAreaChunkCount()
+                && gameMap.getWalkabilityMap().getLoadedChunkCount() <= pagedWorld.getResidentChunkCount());
+    }
+
+    // Tile chunks currently in memory, or -1 if the map is not paged.
+    public int getResidentChunkCount() {
+        return pagedWorld != null ? pagedWorld.getResidentChunkCount() : -1;
+    }
+
+    public GameMap getGameMap() { return gameMap; }
+    public Player getPlayer() { return player; }
+    public EnemyStore getEnemies() { return enemies; }
+    public List<Item> getItemsOnMap() { return itemsOnMap; }
+    public FieldOfView getPlayerView() { return playerView; }
+    public OccupancyIndex getOccupancy() { return occupancy; }
+    public EventRing getEvents() { return events; }
+    public MessageLog getMessageLog() { return messageLog; }
+    public long getTickCount() { return tickCount; }
+    public boolean isGameOver() { return gameOver; }
+}
@@ -0,0 +1,580 @@
+package com.example.roguelike.entities;
+
+import com.example.roguelike.ai.ApproachMaps;
+import com.example.roguelike.ai.Pathfinder;
+import com.example.roguelike.audio.SoundCue;
+import com.example.roguelike.events.EventKind;
+import com.example.roguelike.events.EventRing;
+import com.example.roguelike.world.FieldOfView;
+import com.example.roguelike.world.GameMap;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// All enemies of a level as parallel primitive arrays (structure of arrays), so a tick walks a few
+// dense int arrays instead of chasing one object per enemy. Live enemies occupy indices [0, size);
+// removal swaps the last enemy into the gap. Because indices move, callers hold generational
+// handles instead: a handle names a slot plus the slot's generation, so a handle to a removed enemy
+// never resolves to whichever enemy reuses the slot. Enemy is a thin view over (store, handle).
+public class EnemyStore {
+    public static final int NO_ENTITY = 0; // Never a valid handle, so 0 can mean "nobody" in int grids
+
+    public static final byte FLAG_JUST_DAMAGED = 1; // Hit since the tick began; see expireDamageFlashes
+    public static final byte FLAG_DORMANT = 2; // Off the turn schedule until something wakes it
+    public static final int ACTION_COST = 100; // Energy spent per action; see EnemyType speeds
+
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_GENERATION = (1 << (31 - SLOT_BITS)) - 1; // Keeps handles positive
+    private static final EnemyType[] TYPES = EnemyType.values();
+
+    private static final int GRUNT_ATTACK_POWER = 10;
+    private static final int GRUNT_DETECTION_RADIUS = 8;
+    private static final int SCOUT_DETECTION_RADIUS = 10;
+    private static final int SCOUT_PREFERRED_DISTANCE = 5;
+    // Side of a dormancy region in tiles. At least the largest detection radius and the player's sight
+    // radius, so an enemy outside the 3x3 regions around the player can neither notice nor be seen.
+    private static final int REGION_SIZE = 16;
+    // Enemies planned per fork-join leaf; below this the whole plan phase runs on the calling thread
+    private static final int PLAN_THRESHOLD = 2048;
+    private static final int INTENT_NONE = -1;
+    private static final int INTENT_ATTACK = -2;
+    // Shared by all enemies; search buffers are pooled per thread. The cell budget caps a chase search.
+    private static final Pathfinder PATHFINDER = new Pathfinder(Pathfinder.Algorithm.JUMP_POINT_SEARCH, 1024);
+
+    // Per-enemy columns, indexed by dense index
+    private int size;
+    private int[] xs;
+    private int[] ys;
+    private int[] healths;
+    private int[] experienceValues;
+    private byte[] types;
+    private byte[] flags;
+    private long[] spriteSeeds;
+    private int[] handles;
+    private int[] energies; // Energy banked up to the enemy's next action
+    private int[] nextActionTicks; // Tick of the enemy's next action, as queued in the schedule
+    private int[] intents; // Scratch for the plan/commit tick; not moved by swap-remove
+    // Handles of the enemies flagged JUST_DAMAGED, so expiring the flags never walks the whole store
+    private int[] damagedHandles = new int[16];
+    private int damagedCount;
+
+    // Slot table: handle slot -> dense index, plus the slot's current generation
+    private int[] denseIndexOfSlot;
+    private int[] generationOfSlot;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int slotCount;
+
+    // Turn schedule: handles bucketed by next action tick. No enemy waits longer than ACTION_COST
+    // ticks, so the wheel never wraps onto a pending turn. Entries of removed enemies are skipped
+    // when drained, so removal never has to search the schedule.
+    private final TurnWheel schedule = new TurnWheel(ACTION_COST + 1);
+    private int currentTick;
+    private int[] dueIndices; // Dense indices of the enemies acting this tick, in schedule order
+
+    // Dormant enemies by region. Created on the first tick, once the map size is known.
+    private RegionBuckets sleepers;
+    private int playerRegionX = -1;
+    private int playerRegionY = -1;
+
+    // Shared AI context for every enemy in the store
+    private final Player player;
+    private ApproachMaps navigation; // null falls back to PATHFINDER
+    private FieldOfView playerView; // The player's FOV; by symmetry, the tiles that can see the player
+    private OccupancyIndex occupancy; // Keeps enemies from stacking; null allows free movement
+    private EventRing events; // null drops messages and sound cues
+
+    public EnemyStore(Player player) {
+        this(player, 16);
+    }
+
+    public EnemyStore(Player player, int initialCapacity) {
+        this.player = player;
+        int capacity = Math.max(1, initialCapacity);
+        xs = new int[capacity];
+        ys = new int[capacity];
+        healths = new int[capacity];
+        experienceValues = new int[capacity];
+        types = new byte[capacity];
+        flags = new byte[capacity];
+        spriteSeeds = new long[capacity];
+        handles = new int[capacity];
+        energies = new int[capacity];
+        nextActionTicks = new int[capacity];
+        intents = new int[capacity];
+        dueIndices = new int[capacity];
+        denseIndexOfSlot = new int[capacity];
+        generationOfSlot = new int[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    public void setNavigation(ApproachMaps navigation) { this.navigation = navigation; }
+    public void setPlayerView(FieldOfView playerView) { this.playerView = playerView; }
+    public void setOccupancy(OccupancyIndex occupancy) { this.occupancy = occupancy; }
+    public void setEvents(EventRing events) { this.events = events; }
+    public OccupancyIndex getOccupancy() { return occupancy; }
+    public Player getPlayer() { return player; }
+
+    // Adds an enemy and returns its handle, or NO_ENTITY if another actor already holds the tile.
+    public int spawn(int x, int y, long spriteSeed, EnemyType type) {
+        int slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : slotCount++;
+        if (slot > SLOT_MASK) {
+            throw new IllegalStateException("Too many enemies: " + slot);
+        }
+        ensureCapacity(Math.max(size + 1, slotCount));
+        if (generationOfSlot[slot] == 0) {
+            generationOfSlot[slot] = 1;
+        }
+        int handle = (generationOfSlot[slot] << SLOT_BITS) | slot;
+        if (occupancy != null && !occupancy.placeActor(handle, x, y)) {
+            freeSlots[freeSlotCount++] = slot;
+            return NO_ENTITY;
+        }
+
+        int i = size++;
+        denseIndexOfSlot[slot] = i;
+        handles[i] = handle;
+        xs[i] = x;
+        ys[i] = y;
+        types[i] = (byte) type.ordinal();
+        flags[i] = 0;
+        spriteSeeds[i] = spriteSeed;
+        if (type == EnemyType.SCOUT) {
+            healths[i] = 15;
+            experienceValues[i] = 15; // Scout XP
+        } else { // GRUNT or default
+            healths[i] = 20;
+            experienceValues[i] = 10; // Grunt XP
+        }
+        // Seed-derived starting energy staggers first turns, so a level's enemies don't all act on one tick
+        energies[i] = (int) Math.floorMod(spriteSeed, (long) ACTION_COST);
+        scheduleNextAction(i);
+        return handle;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Dense index of the enemy, or -1 if the handle is stale (enemy removed) or was never issued.
+    public int indexOf(int handle) {
+        if (handle <= 0) return -1;
+        int slot = handle & SLOT_MASK;
+        if (slot >= slotCount || generationOfSlot[slot] != handle >>> SLOT_BITS) return -1;
+        return denseIndexOfSlot[slot];
+    }
+
+    public boolean contains(int handle) {
+        return indexOf(handle) >= 0;
+    }
+
+    public Enemy get(int index) {
+        return new Enemy(this, handles[index]);
+    }
+
+    public int getHandle(int index) { return handles[index]; }
+    public int getX(int index) { return xs[index]; }
+    public int getY(int index) { return ys[index]; }
+    public int getHealth(int index) { return healths[index]; }
+    public boolean isAlive(int index) { return healths[index] > 0; }
+    public int getExperienceValue(int index) { return experienceValues[index]; }
+    public EnemyType getType(int index) { return TYPES[types[index]]; }
+    public long getSpriteSeed(int index) { return spriteSeeds[index]; }
+    public boolean isDormant(int index) { return (flags[index] & FLAG_DORMANT) != 0; }
+
+    public boolean wasJustDamaged(int index) {
+        return (flags[index] & FLAG_JUST_DAMAGED) != 0;
+    }
+
+    // Simulation thread only, like every other write to the store; the renderer just reads the flag.
+    public void setJustDamaged(int index, boolean damaged) {
+        if (damaged) {
+            if (wasJustDamaged(index)) return;
+            flags[index] |= FLAG_JUST_DAMAGED;
+            if (damagedCount == damagedHandles.length) {
+                damagedHandles = Arrays.copyOf(damagedHandles, damagedCount * 2);
+            }
+            damagedHandles[damagedCount++] = handles[index];
+        } else {
+            flags[index] &= ~FLAG_JUST_DAMAGED;
+        }
+    }
+
+    // Clears the damage flash of every enemy hit since the last call. The simulation calls this at the
+    // start of each tick, so a flash shows for every frame of the tick it happened in.
+    public void expireDamageFlashes() {
+        for (int k = 0; k < damagedCount; k++) {
+            int i = indexOf(damagedHandles[k]); // -1 once removed
+            if (i >= 0) {
+                flags[i] &= ~FLAG_JUST_DAMAGED;
+            }
+        }
+        damagedCount = 0;
+    }
+
+    public void takeDamage(int index, int amount) {
+        healths[index] -= amount;
+        if (healths[index] < 0) {
+            healths[index] = 0;
+        }
+        setJustDamaged(index, true);
+        wake(index); // A hit always rouses a sleeper
+        if (events != null) {
+            events.publish(EventKind.ENEMY_DAMAGED, amount, healths[index]);
+            events.publish(EventKind.SOUND, SoundCue.ENEMY_DAMAGED.ordinal(), xs[index] - player.getX(), ys[index] - player.getY());
+        }
+    }
+
+    public boolean remove(int handle) {
+        int index = indexOf(handle);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    // Swap-remove: the last enemy moves into the gap, so iterate backwards when removing during a scan.
+    public void removeAt(int index) {
+        int handle = handles[index];
+        int slot = handle & SLOT_MASK;
+        if (isDormant(index)) {
+            sleepers.remove(handle, xs[index], ys[index]);
+        }
+        if (occupancy != null) {
+            occupancy.removeActor(handle, xs[index], ys[index]);
+        }
+
+        int last = --size;
+        if (index != last) {
+            xs[index] = xs[last];
+            ys[index] = ys[last];
+            healths[index] = healths[last];
+            experienceValues[index] = experienceValues[last];
+            types[index] = types[last];
+            flags[index] = flags[last];
+            spriteSeeds[index] = spriteSeeds[last];
+            handles[index] = handles[last];
+            energies[index] = energies[last];
+            nextActionTicks[index] = nextActionTicks[last];
+            denseIndexOfSlot[handles[index] & SLOT_MASK] = index;
+        }
+
+        // Retire the handle; after MAX_GENERATION reuses of one slot, generations wrap around
+        generationOfSlot[slot] = generationOfSlot[slot] == MAX_GENERATION ? 1 : generationOfSlot[slot] + 1;
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    public void updateAll(GameMap map) {
+        updateAll(map, ForkJoinPool.commonPool());
+    }
+
+    // Advances the store's clock one tick and runs only the enemies whose turn has come, so the cost
+    // follows the number of actors acting rather than the number alive. Two phases. Planning only
+    // reads shared state (map, player, occupancy, navigation), so it runs in parallel and writes each
+    // enemy's intent into its own slot of the intents array. Committing then applies intents one by
+    // one in schedule order: the first enemy to claim a tile gets it, and attacks land in that same
+    // order. The outcome depends only on the store's contents, never on thread count, so ticks replay
+    // deterministically.
+    public void updateAll(GameMap map, ForkJoinPool pool) {
+        if (player == null || map == null || !player.isAlive()) {
+            return;
+        }
+        currentTick++;
+        if (sleepers == null) {
+            sleepers = new RegionBuckets(map.getMapWidthInTiles(), map.getMapHeightInTiles(), REGION_SIZE);
+        }
+        wakeAroundPlayer();
+        int dueCount = 0;
+        int[] due = schedule.bucketAt(currentTick);
+        for (int k = 0, n = schedule.countAt(currentTick); k < n; k++) {
+            int i = indexOf(due[k]);
+            if (i >= 0 && nextActionTicks[i] == currentTick) { // Otherwise removed, or a stale entry
+                dueIndices[dueCount++] = i;
+            }
+        }
+        schedule.clear(currentTick);
+
+        if (dueCount <= PLAN_THRESHOLD) {
+            planRange(map, 0, dueCount);
+        } else {
+            pool.invoke(new PlanRange(map, 0, dueCount));
+        }
+        for (int k = 0; k < dueCount; k++) {
+            int i = dueIndices[k];
+            boolean idle = intents[i] == INTENT_NONE;
+            commit(i, map);
+            energies[i] -= ACTION_COST;
+            if (idle && isFarFromPlayer(i)) {
+                sleep(i); // Costs nothing until the player comes near, a noise, or a hit
+            } else {
+                scheduleNextAction(i);
+            }
+        }
+    }
+
+    // Wakes every dormant enemy in the regions overlapping the square of the given radius around
+    // (x, y). For noise sources; woken enemies that still find nothing to do doze off on their next turn.
+    public void makeNoise(int x, int y, int radius) {
+        if (sleepers == null) return;
+        int fromX = sleepers.regionOf(x - radius);
+        int toX = Math.min(sleepers.regionOf(x + radius), sleepers.getRegionsX() - 1);
+        int fromY = sleepers.regionOf(y - radius);
+        int toY = Math.min(sleepers.regionOf(y + radius), sleepers.getRegionsY() - 1);
+        for (int ry = fromY; ry <= toY; ry++) {
+            for (int rx = fromX; rx <= toX; rx++) {
+                wakeRegion(sleepers.regionIndex(rx, ry));
+            }
+        }
+    }
+
+    // Enemies only fall asleep outside the 3x3 regions around the player, so waking that block
+    // whenever the player crosses into a new region keeps every enemy near the player awake.
+    private void wakeAroundPlayer() {
+        int regionX = sleepers.regionOf(player.getX());
+        int regionY = sleepers.regionOf(player.getY());
+        if (regionX == playerRegionX && regionY == playerRegionY) {
+            return;
+        }
+        playerRegionX = regionX;
+        playerRegionY = regionY;
+        for (int ry = Math.max(0, regionY - 1); ry <= Math.min(regionY + 1, sleepers.getRegionsY() - 1); ry++) {
+            for (int rx = Math.max(0, regionX - 1); rx <= Math.min(regionX + 1, sleepers.getRegionsX() - 1); rx++) {
+                wakeRegion(sleepers.regionIndex(rx, ry));
+            }
+        }
+    }
+
+    private boolean isFarFromPlayer(int i) {
+        return Math.abs(sleepers.regionOf(xs[i]) - playerRegionX) > 1 || Math.abs(sleepers.regionOf(ys[i]) - playerRegionY) > 1;
+    }
+
+    private void sleep(int i) {
+        flags[i] |= FLAG_DORMANT;
+        sleepers.add(handles[i], xs[i], ys[i]);
+    }
+
+    private void wake(int i) {
+        if (!isDormant(i)) return;
+        sleepers.remove(handles[i], xs[i], ys[i]);
+        flags[i] &= ~FLAG_DORMANT;
+        scheduleNextAction(i);
+    }
+
+    private void wakeRegion(int region) {
+        int[] bucket = sleepers.bucketAt(region);
+        for (int k = 0, n = sleepers.countAt(region); k < n; k++) {
+            int i = indexOf(bucket[k]);
+            if (i >= 0) {
+                flags[i] &= ~FLAG_DORMANT;
+                scheduleNextAction(i);
+            }
+        }
+        sleepers.clear(region);
+    }
+
+    // Plans and commits a single enemy immediately.
+    public void update(int i, GameMap map) {
+        if (player == null || map == null || !player.isAlive()) {
+            return;
+        }
+        intents[i] = plan(i, map);
+        commit(i, map);
+    }
+
+    // Plans the due enemies dueIndices[from, to).
+    private void planRange(GameMap map, int from, int to) {
+        int playerX = player.getX();
+        int playerY = player.getY();
+        for (int k = from; k < to; k++) {
+            int i = dueIndices[k];
+            // Cheap reject first: most enemies of a big level are nowhere near the player
+            int dx = playerX - xs[i];
+            int dy = playerY - ys[i];
+            intents[i] = dx * dx + dy * dy < SCOUT_DETECTION_RADIUS * SCOUT_DETECTION_RADIUS ? plan(i, map) : INTENT_NONE;
+        }
+    }
+
+    private class PlanRange extends RecursiveAction {
+        private final GameMap map;
+        private final int from;
+        private final int to;
+
+        PlanRange(GameMap map, int from, int to) {
+            this.map = map;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PLAN_THRESHOLD) {
+                planRange(map, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PlanRange(map, from, mid), new PlanRange(map, mid, to));
+        }
+    }
+
+    private void commit(int i, GameMap map) {
+        int intent = intents[i];
+        intents[i] = INTENT_NONE;
+        if (intent == INTENT_ATTACK) {
+            if (player.isAlive() && healths[i] > 0) {
+                if (events != null) events.publish(EventKind.ENEMY_ATTACKS, types[i]);
+                this.player.takeDamage(GRUNT_ATTACK_POWER);
+            }
+        } else if (intent >= 0) {
+            moveTo(i, intent % map.getMapWidthInTiles(), intent / map.getMapWidthInTiles()); // Stays put if the tile was claimed first
+        }
+    }
+
+    // Decides what enemy i wants to do this tick without changing any shared state.
+    // Returns INTENT_NONE, INTENT_ATTACK, or the cell index to move to.
+    private int plan(int i, GameMap map) {
+        if (healths[i] <= 0) {
+            return INTENT_NONE;
+        }
+
+        int dx = this.player.getX() - xs[i];
+        int dy = this.player.getY() - ys[i];
+        int distanceSquared = dx * dx + dy * dy; // Compared against squared radii instead of taking a sqrt
+        int width = map.getMapWidthInTiles();
+
+        if (types[i] == EnemyType.GRUNT.ordinal()) {
+            if (distanceSquared < GRUNT_DETECTION_RADIUS * GRUNT_DETECTION_RADIUS && canSeePlayer(i)) {
+                // Follow the shortest path so walls and corners don't stop the chase
+                int step = stepTowardsPlayer(i, map);
+                if (step == Pathfinder.NO_PATH) {
+                    return INTENT_NONE; // Player can't be reached from here
+                }
+                if (step == this.player.getY() * width + this.player.getX()) {
+                    return INTENT_ATTACK;
+                }
+                return step;
+            }
+        } else if (types[i] == EnemyType.SCOUT.ordinal()) {
+            int preferredDistance = SCOUT_PREFERRED_DISTANCE;
+            boolean tooClose = distanceSquared < (preferredDistance - 1) * (preferredDistance - 1);
+            int moveX = 0;
+            int moveY = 0;
+
+            if (distanceSquared < SCOUT_DETECTION_RADIUS * SCOUT_DETECTION_RADIUS && canSeePlayer(i)) {
+                if (distanceSquared > preferredDistance * preferredDistance) { // Too far, move closer along the shortest path
+                    int step = stepTowardsPlayer(i, map);
+                    if (step == Pathfinder.NO_PATH) {
+                        return INTENT_NONE;
+                    }
+                    moveX = step % width - xs[i];
+                    moveY = step / width - ys[i];
+                } else if (tooClose && navigation != null) { // Too close, flee map avoids dead ends
+                    int step = navigation.fleeStep(xs[i], ys[i]);
+                    if (step == -1) {
+                        return INTENT_NONE; // Already as far as the flee map can take us
+                    }
+                    moveX = step % width - xs[i];
+                    moveY = step / width - ys[i];
+                } else if (tooClose) { // Too close, move away
+                    moveX = -Integer.signum(dx);
+                    moveY = -Integer.signum(dy);
+                } else { // In preferred range, do nothing or move randomly (optional)
+                    return INTENT_NONE;
+                }
+
+                int nextX = xs[i] + moveX;
+                int nextY = ys[i] + moveY;
+                if (canEnter(map, nextX, nextY)) {
+                    return nextY * width + nextX;
+                }
+                if (tooClose) { // Retreat is blocked, try perpendicular
+                    // Try perpendicular 1
+                    int perpMoveX1 = -Integer.signum(dy);
+                    int perpMoveY1 = Integer.signum(dx);
+                    if (perpMoveX1 == 0 && perpMoveY1 == 0 && dx!=0) { // if dy is 0, signum(dy) is 0, use dx for perp
+                        perpMoveX1 = 0; perpMoveY1 = (dx > 0 ? 1: -1) ;
+                    } else if (perpMoveX1 == 0 && perpMoveY1 == 0 && dy!=0) { // if dx is 0, signum(dx) is 0, use dy for perp
+                        perpMoveX1 = (dy > 0 ? 1: -1); perpMoveY1 = 0;
+                    }
+                    if (canEnter(map, xs[i] + perpMoveX1, ys[i] + perpMoveY1)) {
+                        return (ys[i] + perpMoveY1) * width + xs[i] + perpMoveX1;
+                    }
+
+                    // Try perpendicular 2
+                    int perpMoveX2 = Integer.signum(dy);
+                    int perpMoveY2 = -Integer.signum(dx);
+                    if (perpMoveX2 == 0 && perpMoveY2 == 0 && dx!=0) {
+                        perpMoveX2 = 0; perpMoveY2 = (dx > 0 ? -1: 1) ;
+                    } else if (perpMoveX2 == 0 && perpMoveY2 == 0 && dy!=0) {
+                        perpMoveX2 = (dy > 0 ? -1: 1); perpMoveY2 = 0;
+                    }
+                    if (canEnter(map, xs[i] + perpMoveX2, ys[i] + perpMoveY2)) {
+                        return (ys[i] + perpMoveY2) * width + xs[i] + perpMoveX2;
+                    }
+                }
+            }
+        }
+        return INTENT_NONE;
+    }
+
+    // Queues enemy i for the first tick at which it will have banked ACTION_COST energy. That energy
+    // is credited up front, so the remainder carries over and a speed of 15 averages one action per
+    // 6.7 ticks rather than rounding to 7.
+    private void scheduleNextAction(int i) {
+        int speed = Math.max(1, TYPES[types[i]].getSpeed());
+        int waitTicks = Math.max(1, (ACTION_COST - energies[i] + speed - 1) / speed);
+        energies[i] = Math.min(energies[i] + waitTicks * speed, ACTION_COST + speed); // At most one action per tick
+        nextActionTicks[i] = currentTick + waitTicks;
+        schedule.schedule(handles[i], nextActionTicks[i]);
+    }
+
+    // Walkable, not the player's tile, and free as of the start of the tick.
+    private boolean canEnter(GameMap map, int x, int y) {
+        return map.isWalkable(x, y) && !(x == player.getX() && y == player.getY()) &&
+               (occupancy == null || !occupancy.hasActorAt(x, y));
+    }
+
+    // Without a view (e.g. test levels) enemies fall back to the plain radius check.
+    private boolean canSeePlayer(int i) {
+        return playerView == null || playerView.isVisible(xs[i], ys[i]);
+    }
+
+    // Moves unless another actor already stands on the tile; keeps the occupancy index in step.
+    private boolean moveTo(int i, int newX, int newY) {
+        if (occupancy != null && !occupancy.moveActor(handles[i], xs[i], ys[i], newX, newY)) {
+            return false;
+        }
+        xs[i] = newX;
+        ys[i] = newY;
+        return true;
+    }
+
+    // Cell index of the next step towards the player. Uses the shared approach map when the enemy
+    // is inside it, so a crowd of enemies costs one map rebuild per player move rather than a search each.
+    private int stepTowardsPlayer(int i, GameMap map) {
+        if (navigation != null && navigation.distanceToPlayer(xs[i], ys[i]) >= 0) {
+            int step = navigation.approachStep(xs[i], ys[i]);
+            return step != -1 ? step : Pathfinder.NO_PATH;
+        }
+        return PATHFINDER.nextStep(map, xs[i], ys[i], this.player.getX(), this.player.getY());
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= xs.length) return;
+        int capacity = Math.max(needed, xs.length * 2);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        experienceValues = Arrays.copyOf(experienceValues, capacity);
+        types = Arrays.copyOf(types, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        spriteSeeds = Arrays.copyOf(spriteSeeds, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        energies = Arrays.copyOf(energies, capacity);
+        nextActionTicks = Arrays.copyOf(nextActionTicks, capacity);
+        intents = Arrays.copyOf(intents, capacity);
+        dueIndices = Arrays.copyOf(dueIndices, capacity);
+        denseIndexOfSlot = Arrays.copyOf(denseIndexOfSlot, capacity);
+        generationOfSlot = Arrays.copyOf(generationOfSlot, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
@@ -1,6 +1,17 @@
 package com.example.roguelike.entities;
 
+// Speed is the energy gained per tick; an enemy acts each time it has saved up EnemyStore.ACTION_COST.
 public enum EnemyType {
-    GRUNT,    // The existing enemy type
-    SCOUT     // A new, faster enemy that tries to maintain distance
+    GRUNT(10),    // The existing enemy type; acts every 10 ticks
+    SCOUT(15);    // A new, faster enemy that tries to maintain distance; acts about every 6.7 ticks
+
+    private final int speed;
+
+    EnemyType(int speed) {
+        this.speed = speed;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
 }
@@ -0,0 +1,162 @@
+package com.example.roguelike.entities;
+
+import com.example.roguelike.items.Item;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Which actor stands on each tile, and which items lie there, for O(1) collision, attack-target
+// and pickup lookups. Actors (player and enemies) block each other, so at most one per tile; their ids
+// sit in grids of BLOCK_SIZE x BLOCK_SIZE tiles that exist only while some actor stands in the block,
+// so memory follows the number of actors rather than the size of the world. Items are few and may
+// stack, so each block just keeps a list of the items lying in it, in the order they were dropped.
+// Actor ids are EnemyStore handles, or PLAYER for the player.
+// Callers keep it current: place on spawn, move on every step, remove on death or pickup.
+public class OccupancyIndex {
+    public static final int NONE = EnemyStore.NO_ENTITY;
+    public static final int PLAYER = -1; // Enemy handles are always positive
+
+    private static final int BLOCK_SHIFT = 4;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int width;
+    private final int height;
+    private final int blocksX;
+    private final int[][] actorBlocks; // Row-major actor ids per block; null while the block is empty
+    private final int[] actorCounts; // Actors standing in each block
+    private final List<List<Item>> itemBlocks; // Items per block; null while the block has none
+
+    public OccupancyIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.blocksX = (width + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        int blocksY = (height + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        this.actorBlocks = new int[blocksX * blocksY][];
+        this.actorCounts = new int[blocksX * blocksY];
+        this.itemBlocks = new ArrayList<>(Collections.nCopies(blocksX * blocksY, null));
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // Returns false (and changes nothing) if the tile is already taken.
+    public boolean placeActor(int actor, int x, int y) {
+        if (!inBounds(x, y) || getActorAt(x, y) != NONE) return false;
+        setActorAt(x, y, actor);
+        return true;
+    }
+
+    // Call before updating the actor's own coordinates. Returns false if the destination is taken.
+    public boolean moveActor(int actor, int fromX, int fromY, int toX, int toY) {
+        if (!inBounds(toX, toY)) return false;
+        int atDestination = getActorAt(toX, toY);
+        if (atDestination != NONE && atDestination != actor) return false;
+        // Destination first: an actor alone in its block then never empties it for a moment, which
+        // would free the block and allocate a new one on every step inside it
+        setActorAt(toX, toY, actor);
+        if ((fromX != toX || fromY != toY) && getActorAt(fromX, fromY) == actor) {
+            setActorAt(fromX, fromY, NONE);
+        }
+        return true;
+    }
+
+    public void removeActor(int actor, int x, int y) {
+        if (getActorAt(x, y) == actor) {
+            setActorAt(x, y, NONE);
+        }
+    }
+
+    // Id of the actor on the tile, or NONE.
+    public int getActorAt(int x, int y) {
+        if (!inBounds(x, y)) return NONE;
+        int[] block = actorBlocks[blockIndex(x, y)];
+        return block != null ? block[(y & (BLOCK_SIZE - 1)) * BLOCK_SIZE + (x & (BLOCK_SIZE - 1))] : NONE;
+    }
+
+    // Allocates the block on its first actor and frees it when its last actor leaves.
+    private void setActorAt(int x, int y, int actor) {
+        int index = blockIndex(x, y);
+        int[] block = actorBlocks[index];
+        if (block == null) {
+            if (actor == NONE) return;
+            block = new int[BLOCK_SIZE * BLOCK_SIZE]; // NONE is 0, so a new block is empty
+            actorBlocks[index] = block;
+        }
+        int cell = (y & (BLOCK_SIZE - 1)) * BLOCK_SIZE + (x & (BLOCK_SIZE - 1));
+        if (block[cell] == NONE && actor != NONE) {
+            actorCounts[index]++;
+        } else if (block[cell] != NONE && actor == NONE && --actorCounts[index] == 0) {
+            actorBlocks[index] = null;
+            return;
+        }
+        block[cell] = actor;
+    }
+
+    public boolean hasActorAt(int x, int y) {
+        return getActorAt(x, y) != NONE;
+    }
+
+    public void addItem(Item item) {
+        if (!inBounds(item.getX(), item.getY())) return;
+        int index = blockIndex(item.getX(), item.getY());
+        List<Item> block = itemBlocks.get(index);
+        if (block == null) {
+            block = new ArrayList<>(2); // Almost every block holds at most a couple of items
+            itemBlocks.set(index, block);
+        }
+        block.add(item);
+    }
+
+    public void removeItem(Item item) {
+        if (!inBounds(item.getX(), item.getY())) return;
+        int index = blockIndex(item.getX(), item.getY());
+        List<Item> block = itemBlocks.get(index);
+        if (block != null && block.remove(item) && block.isEmpty()) {
+            itemBlocks.set(index, null);
+        }
+    }
+
+    // First item dropped on the tile, or null.
+    public Item getItemAt(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        List<Item> block = itemBlocks.get(blockIndex(x, y));
+        if (block == null) return null;
+        for (int i = 0; i < block.size(); i++) {
+            Item item = block.get(i);
+            if (item.getX() == x && item.getY() == y) return item;
+        }
+        return null;
+    }
+
+    // Visits every item on the tiles from (fromX, fromY) to (toX, toY) inclusive, block by block;
+    // items on the same tile come in the order they were dropped.
+    public void forEachItemIn(int fromX, int fromY, int toX, int toY, Consumer<Item> visitor) {
+        fromX = Math.max(0, fromX);
+        fromY = Math.max(0, fromY);
+        toX = Math.min(width - 1, toX);
+        toY = Math.min(height - 1, toY);
+        for (int blockY = fromY >> BLOCK_SHIFT; blockY <= toY >> BLOCK_SHIFT && fromX <= toX; blockY++) {
+            for (int blockX = fromX >> BLOCK_SHIFT; blockX <= toX >> BLOCK_SHIFT; blockX++) {
+                List<Item> block = itemBlocks.get(blockY * blocksX + blockX);
+                if (block == null) continue;
+                for (int i = 0; i < block.size(); i++) {
+                    Item item = block.get(i);
+                    if (item.getX() >= fromX && item.getX() <= toX && item.getY() >= fromY && item.getY() <= toY) {
+                        visitor.accept(item);
+                    }
+                }
+            }
+        }
+    }
+
+    private int blockIndex(int x, int y) {
+        return (y >> BLOCK_SHIFT) * blocksX + (x >> BLOCK_SHIFT);
+    }
+
+    // True if an actor or an item is on the tile.
+    public boolean isOccupied(int x, int y) {
+        return hasActorAt(x, y) || getItemAt(x, y) != null;
+    }
+}
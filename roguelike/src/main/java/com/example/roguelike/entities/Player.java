@@ -1,13 +1,12 @@
 package com.example.roguelike.entities;
 
+import com.example.roguelike.audio.SoundCue;
+import com.example.roguelike.events.EventKind;
+import com.example.roguelike.events.EventRing;
 import com.example.roguelike.world.GameMap;
-import com.example.roguelike.rendering.GameRenderer;
-import com.example.roguelike.rendering.ProceduralSpriteData; // Added
-import com.example.roguelike.rendering.SpriteGenerator; // Added
 import com.example.roguelike.items.Item;
 import com.example.roguelike.items.ItemType;
 // import com.example.roguelike.items.ItemEffect; // Old system, to be removed
-import java.awt.Graphics;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,15 +16,14 @@ public class Player implements GameEntity {
     // If these are pixel dimensions, they should probably be TILE_SIZE.
     // If they are grid dimensions (e.g. player occupies 1x1 cell), it'd be 1.
     // Given GameRenderer draws player in a TILE_SIZE box, let's make these TILE_SIZE.
-    public static final int PLAYER_WIDTH = GameRenderer.TILE_WIDTH; 
-    public static final int PLAYER_HEIGHT = GameRenderer.TILE_HEIGHT;
+    public static final int PLAYER_WIDTH = GameMap.TILE_PIXEL_WIDTH; 
+    public static final int PLAYER_HEIGHT = GameMap.TILE_PIXEL_HEIGHT;
 
     // x and y are now grid coordinates
     private int x;
     private int y;
     // private PlayerAppearance appearance; // Replaced by simpler spriteSeed system
     private long spriteSeed; 
-    private ProceduralSpriteData spriteData; // Added
     private int health;
     private int maxHealth;
     // private int attackPower; // Replaced by baseAttackPower + weapon
@@ -41,7 +39,8 @@ public class Player implements GameEntity {
     private int currentLevel = 1; 
     private int experienceToNextLevel = 100; 
     private boolean movementDelayed = false; 
-    private boolean justDamaged = false; // Added for damage flash
+    private boolean justDamaged = false; // Added for damage flash; set and cleared by the simulation only
+    private EventRing events; // Where messages and sound cues go; null drops them
 
     public Player(int gridX, int gridY) {
         this.x = gridX;
@@ -49,14 +48,9 @@ public class Player implements GameEntity {
         this.spriteSeed = 12345L; 
         this.maxHealth = 100; 
         this.health = this.maxHealth; 
-        this.spriteData = SpriteGenerator.generatePlayerSprite(this.spriteSeed); // Initialize spriteData
         // attackPower and defense are now dynamic
     }
 
-    public ProceduralSpriteData getSpriteData() { // Added getter
-        return spriteData;
-    }
-
     // Getter for baseDefense (as specified)
     public int getBaseDefense() { 
         return baseDefense;
@@ -70,29 +64,32 @@ public class Player implements GameEntity {
     public Item getEquippedArmor() { 
         return equippedArmor;
     }
+
+    public void setEvents(EventRing events) {
+        this.events = events;
+    }
     
-    public void pickUpItem(Item item, List<String> gameMessages) { 
+    public void pickUpItem(Item item) { 
         if (item.getType() == ItemType.WEAPON_SWORD) {
-            if (equippedWeapon != null) gameMessages.add("You dropped " + equippedWeapon.getName() + ".");
+            if (equippedWeapon != null) publish(EventKind.ITEM_DROPPED, equippedWeapon.getType().ordinal(), 0);
             equippedWeapon = item;
-            gameMessages.add("You equipped " + item.getName() + " (Attack +" + item.getAttackBonus() + ").");
-
-            System.out.println("SFX: Item_Pickup"); // Sound Cue
+            publish(EventKind.WEAPON_EQUIPPED, item.getType().ordinal(), item.getAttackBonus());
+            playSound(SoundCue.ITEM_PICKUP, x, y);
 
         } else if (item.getType() == ItemType.ARMOR_SHIELD) {
-            if (equippedArmor != null) gameMessages.add("You dropped " + equippedArmor.getName() + ".");
+            if (equippedArmor != null) publish(EventKind.ITEM_DROPPED, equippedArmor.getType().ordinal(), 0);
             equippedArmor = item;
-            gameMessages.add("You equipped " + item.getName() + " (Defense +" + item.getDefenseBonus() + ").");
-            System.out.println("SFX: Item_Pickup"); // Sound Cue
+            publish(EventKind.ARMOR_EQUIPPED, item.getType().ordinal(), item.getDefenseBonus());
+            playSound(SoundCue.ITEM_PICKUP, x, y);
         } else if (item.getType() == ItemType.CONSUMABLE_HEALTH_POTION) {
             consumablesInventory.add(item); 
-            gameMessages.add("You picked up a " + item.getName() + ".");
-            System.out.println("SFX: Item_Pickup"); // Sound Cue
+            publish(EventKind.ITEM_PICKED_UP, item.getType().ordinal(), 0);
+            playSound(SoundCue.ITEM_PICKUP, x, y);
 
         }
     }
 
-    public void useHealthPotion(List<String> gameMessages) {
+    public void useHealthPotion() {
         Item potionToUse = null;
         for (Item item : consumablesInventory) {
             if (item.getType() == ItemType.CONSUMABLE_HEALTH_POTION) {
@@ -107,34 +104,43 @@ public class Player implements GameEntity {
                     this.health = this.maxHealth;
                 }
                 consumablesInventory.remove(potionToUse);
-                gameMessages.add("You drank a " + potionToUse.getName() + ", healing " + potionToUse.getHealingAmount() + " HP.");
-                System.out.println("SFX: Player_Heal"); // Sound Cue
+                publish(EventKind.POTION_DRUNK, potionToUse.getType().ordinal(), potionToUse.getHealingAmount());
+                playSound(SoundCue.PLAYER_HEAL, x, y);
 
             } else {
-                gameMessages.add("You are already at full health.");
+                publish(EventKind.ALREADY_AT_FULL_HEALTH, 0, 0);
             }
         } else {
-            gameMessages.add("You have no health potions.");
+            publish(EventKind.NO_HEALTH_POTIONS, 0, 0);
         }
     }
 
-    public void addExperience(int amount, List<String> gameMessages) {
+    public void addExperience(int amount) {
         if (!isAlive()) return; 
         this.experiencePoints += amount;
-        gameMessages.add("You gained " + amount + " XP.");
+        publish(EventKind.EXPERIENCE_GAINED, amount, 0);
         while (this.experiencePoints >= this.experienceToNextLevel) {
             this.experiencePoints -= this.experienceToNextLevel;
-            levelUp(gameMessages);
+            levelUp();
         }
     }
 
-    private void levelUp(List<String> gameMessages) {
+    private void levelUp() {
         this.currentLevel++;
         this.maxHealth += 20; 
         this.health = this.maxHealth; 
         // this.baseAttackPower += 2; // Optionally increase base attack
         this.experienceToNextLevel = (int)(this.experienceToNextLevel * 1.5); 
-        gameMessages.add("You reached Level " + this.currentLevel + "! Max HP increased. You are fully healed.");
+        publish(EventKind.LEVEL_UP, this.currentLevel, 0);
+    }
+
+    private void publish(EventKind kind, int a, int b) {
+        if (events != null) events.publish(kind, a, b);
+    }
+
+    // Sound events carry their tile relative to the player, which is all the mixer needs to attenuate them.
+    private void playSound(SoundCue cue, int atX, int atY) {
+        if (events != null) events.publish(EventKind.SOUND, cue.ordinal(), atX - x, atY - y);
     }
 
     // Getters for progression
@@ -178,7 +184,7 @@ public class Player implements GameEntity {
             this.health -= actualDamage;
             if (this.health < 0) this.health = 0;
             setJustDamaged(true);
-            System.out.println("SFX: Player_Damaged"); // Sound Cue
+            playSound(SoundCue.PLAYER_DAMAGED, x, y);
         }
         // Console message for damage taken can be added in GameManager or here if needed
     }
@@ -220,10 +226,10 @@ public class Player implements GameEntity {
     }
 
     // dx and dy are grid steps (e.g., 1, 0, -1)
-    public void move(int dx, int dy, GameMap map, List<Enemy> enemies, List<String> gameMessages) {
+    public void move(int dx, int dy, GameMap map, OccupancyIndex occupancy, EnemyStore enemies) {
         if (this.movementDelayed) {
             this.movementDelayed = false; // Use up the delay
-            if (gameMessages != null) gameMessages.add("You are slowed by water and skip your move.");
+            publish(EventKind.MOVE_SKIPPED_IN_WATER, 0, 0);
             return; // Skip this move attempt
         }
 
@@ -235,25 +241,24 @@ public class Player implements GameEntity {
         // Check for door at the target location first
         if (targetTile != null && targetTile.getType() == com.example.roguelike.world.TileType.DOOR_CLOSED) {
             targetTile.setType(com.example.roguelike.world.TileType.DOOR_OPEN);
-            if (gameMessages != null) gameMessages.add("You opened a door.");
-            System.out.println("SFX: Door_Open"); // Sound Cue
+            publish(EventKind.DOOR_OPENED, newX, newY);
+            playSound(SoundCue.DOOR_OPEN, newX, newY);
 
             return; 
         }
 
         // Check for enemy at the target location
-        for (Enemy enemy : enemies) {
-            if (enemy.getX() == newX && enemy.getY() == newY && enemy.isAlive()) {
-                if (gameMessages != null) gameMessages.add("Player attacks " + enemy.getType().toString().toLowerCase() + "!");
-                System.out.println("SFX: Player_Attack_Hit"); // Sound Cue
+        int enemy = enemies.indexOf(occupancy.getActorAt(newX, newY));
+        if (enemy >= 0 && enemies.isAlive(enemy)) {
+            publish(EventKind.PLAYER_ATTACKS, enemies.getType(enemy).ordinal(), 0);
+            playSound(SoundCue.PLAYER_ATTACK_HIT, newX, newY);
 
-                enemy.takeDamage(getAttackPower()); 
-                return; 
-            }
+            enemies.takeDamage(enemy, getAttackPower()); 
+            return; 
         }
 
         // If no door and no enemy, proceed with normal movement
-        if (map.isWalkable(newX, newY)) {
+        if (map.isWalkable(newX, newY) && occupancy.moveActor(OccupancyIndex.PLAYER, this.x, this.y, newX, newY)) {
             this.x = newX;
             this.y = newY;
 
@@ -263,16 +268,16 @@ public class Player implements GameEntity {
                 if (newTileSteppedOn.getType() == com.example.roguelike.world.TileType.TRAP_HIDDEN) {
                     int damage = newTileSteppedOn.getDamageOnStep(); // Get damage before reveal (which sets it to 0)
                     takeDamage(damage);
-                    if (gameMessages != null) gameMessages.add("You stepped on a trap! Took " + damage + " damage.");
+                    publish(EventKind.TRAP_STEPPED_ON, damage, 0);
                     newTileSteppedOn.revealTrap(); 
                 }
                 if (newTileSteppedOn.slowsMovement()) {
                     this.movementDelayed = true;
-                    if (gameMessages != null) gameMessages.add("You are slowed by water.");
+                    publish(EventKind.SLOWED_BY_WATER, 0, 0);
                 }
             }
         } else {
-            if (gameMessages != null) gameMessages.add("You can't move there.");
+            publish(EventKind.MOVE_BLOCKED, 0, 0);
         }
     }
 
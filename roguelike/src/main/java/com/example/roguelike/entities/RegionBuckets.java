@@ -0,0 +1,69 @@
+package com.example.roguelike.entities;
+
+import java.util.Arrays;
+
+// Actor ids bucketed by map region (square blocks of regionSize tiles), so everything in or near an
+// area can be found without scanning every actor. Buckets are small unordered int lists.
+class RegionBuckets {
+    private final int regionSize;
+    private final int regionsX;
+    private final int regionsY;
+    private final int[][] buckets;
+    private final int[] counts;
+
+    RegionBuckets(int widthInTiles, int heightInTiles, int regionSize) {
+        this.regionSize = regionSize;
+        this.regionsX = Math.max(1, (widthInTiles + regionSize - 1) / regionSize);
+        this.regionsY = Math.max(1, (heightInTiles + regionSize - 1) / regionSize);
+        this.buckets = new int[regionsX * regionsY][];
+        this.counts = new int[regionsX * regionsY];
+    }
+
+    int getRegionsX() { return regionsX; }
+    int getRegionsY() { return regionsY; }
+
+    // Region coordinate of a tile coordinate, clamped so off-map positions land in an edge region.
+    int regionOf(int tile) {
+        return Math.max(0, tile / regionSize);
+    }
+
+    int regionIndex(int regionX, int regionY) {
+        return Math.min(regionY, regionsY - 1) * regionsX + Math.min(regionX, regionsX - 1);
+    }
+
+    void add(int id, int x, int y) {
+        int r = regionIndex(regionOf(x), regionOf(y));
+        if (buckets[r] == null) {
+            buckets[r] = new int[4];
+        } else if (counts[r] == buckets[r].length) {
+            buckets[r] = Arrays.copyOf(buckets[r], counts[r] * 2);
+        }
+        buckets[r][counts[r]++] = id;
+    }
+
+    // Returns false if the id isn't in the bucket for (x, y).
+    boolean remove(int id, int x, int y) {
+        int r = regionIndex(regionOf(x), regionOf(y));
+        int[] bucket = buckets[r];
+        for (int k = 0; k < counts[r]; k++) {
+            if (bucket[k] == id) {
+                bucket[k] = bucket[--counts[r]];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int countAt(int region) {
+        return counts[region];
+    }
+
+    // Ids in the region, valid for indices [0, countAt(region)) until the bucket next changes.
+    int[] bucketAt(int region) {
+        return buckets[region];
+    }
+
+    void clear(int region) {
+        counts[region] = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.roguelike.entities;
+
+import java.util.Arrays;
+
+// Timing wheel of actor ids keyed by the tick they act on: one bucket per tick, reused round-robin.
+// Scheduling and draining are O(1) per actor, and a bucket drains in the order it was filled, so
+// turns replay deterministically. Only ticks less than getHorizon() ahead of the current one fit.
+// No cancel: callers skip stale ids when draining.
+class TurnWheel {
+    private final int[][] buckets;
+    private final int[] counts;
+    private final int mask;
+
+    TurnWheel(int horizon) {
+        int size = Integer.highestOneBit(Math.max(2, horizon) * 2 - 1); // Next power of two
+        buckets = new int[size][16];
+        counts = new int[size];
+        mask = size - 1;
+    }
+
+    int getHorizon() {
+        return buckets.length;
+    }
+
+    void schedule(int id, int tick) {
+        int b = tick & mask;
+        if (counts[b] == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], counts[b] * 2);
+        }
+        buckets[b][counts[b]++] = id;
+    }
+
+    int countAt(int tick) {
+        return counts[tick & mask];
+    }
+
+    // Ids scheduled for the tick, valid for indices [0, countAt(tick)) until clear(tick).
+    int[] bucketAt(int tick) {
+        return buckets[tick & mask];
+    }
+
+    void clear(int tick) {
+        counts[tick & mask] = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.roguelike.events;
+
+// Drains one reader into a handler on a daemon thread, so consumers like stdout never run on the
+// game thread. Polls every periodMillis; events are at most one period late.
+public final class EventDrain implements Runnable {
+    private final EventRing.Reader reader;
+    private final EventRing.Handler handler;
+    private final long periodMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private EventDrain(String name, EventRing.Reader reader, EventRing.Handler handler, long periodMillis) {
+        this.reader = reader;
+        this.handler = handler;
+        this.periodMillis = periodMillis;
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    public static EventDrain start(String name, EventRing ring, EventRing.Handler handler, long periodMillis) {
+        EventDrain drain = new EventDrain(name, ring.newReader(), handler, periodMillis);
+        drain.thread.start();
+        return drain;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            reader.drain(handler);
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        reader.drain(handler); // Whatever was published before stop()
+    }
+
+    // Stops after one last drain. Does not wait for the thread to finish.
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    public long getLostCount() {
+        return reader.getLostCount();
+    }
+}
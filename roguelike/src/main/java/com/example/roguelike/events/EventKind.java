@@ -0,0 +1,71 @@
+package com.example.roguelike.events;
+
+import com.example.roguelike.entities.EnemyType;
+import com.example.roguelike.items.ItemType;
+
+// What happened in the simulation. Each event carries up to three int payload slots (a, b, c) whose
+// meaning depends on the kind; enums travel as ordinals. Text is only built by describe(), when an
+// event is actually shown.
+public enum EventKind {
+    MOVE_SKIPPED_IN_WATER,
+    MOVE_BLOCKED,
+    SLOWED_BY_WATER,
+    DOOR_OPENED,            // a, b: door tile
+    TRAP_STEPPED_ON,        // a: damage
+    PLAYER_ATTACKS,         // a: EnemyType ordinal
+    PLAYER_DIED,
+    ENEMY_DAMAGED,          // a: damage, b: health left
+    ENEMY_ATTACKS,          // a: EnemyType ordinal
+    ENEMY_DEFEATED,         // a: EnemyType ordinal, b: experience value
+    ITEM_DROPPED,           // a: ItemType ordinal
+    WEAPON_EQUIPPED,        // a: ItemType ordinal, b: attack bonus
+    ARMOR_EQUIPPED,         // a: ItemType ordinal, b: defense bonus
+    ITEM_PICKED_UP,         // a: ItemType ordinal
+    POTION_DRUNK,           // a: ItemType ordinal, b: HP healed
+    ALREADY_AT_FULL_HEALTH,
+    NO_HEALTH_POTIONS,
+    EXPERIENCE_GAINED,      // a: experience points
+    LEVEL_UP,               // a: new level
+    SOUND;                  // a: SoundCue ordinal, b, c: where it happened, relative to the player
+
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    public boolean hasText() {
+        return this != SOUND;
+    }
+
+    // Player-facing text for the event, or null if it has none.
+    public String describe(int a, int b, int c) {
+        switch (this) {
+            case MOVE_SKIPPED_IN_WATER: return "You are slowed by water and skip your move.";
+            case MOVE_BLOCKED: return "You can't move there.";
+            case SLOWED_BY_WATER: return "You are slowed by water.";
+            case DOOR_OPENED: return "You opened a door.";
+            case TRAP_STEPPED_ON: return "You stepped on a trap! Took " + a + " damage.";
+            case PLAYER_ATTACKS: return "Player attacks " + enemyName(a) + "!";
+            case PLAYER_DIED: return "Game Over!";
+            case ENEMY_DAMAGED: return "Enemy takes " + a + " damage. Enemy health: " + b;
+            case ENEMY_ATTACKS: return capitalize(enemyName(a)) + " attacks player!";
+            case ENEMY_DEFEATED: return "An " + enemyName(a) + " has been defeated! You gain " + b + " XP.";
+            case ITEM_DROPPED: return "You dropped " + ITEM_TYPES[a].getDisplayName() + ".";
+            case WEAPON_EQUIPPED: return "You equipped " + ITEM_TYPES[a].getDisplayName() + " (Attack +" + b + ").";
+            case ARMOR_EQUIPPED: return "You equipped " + ITEM_TYPES[a].getDisplayName() + " (Defense +" + b + ").";
+            case ITEM_PICKED_UP: return "You picked up a " + ITEM_TYPES[a].getDisplayName() + ".";
+            case POTION_DRUNK: return "You drank a " + ITEM_TYPES[a].getDisplayName() + ", healing " + b + " HP.";
+            case ALREADY_AT_FULL_HEALTH: return "You are already at full health.";
+            case NO_HEALTH_POTIONS: return "You have no health potions.";
+            case EXPERIENCE_GAINED: return "You gained " + a + " XP.";
+            case LEVEL_UP: return "You reached Level " + a + "! Max HP increased. You are fully healed.";
+            default: return null; // SOUND has no text
+        }
+    }
+
+    private static String enemyName(int ordinal) {
+        return ENEMY_TYPES[ordinal].toString().toLowerCase();
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.roguelike.events;
+
+import java.lang.invoke.VarHandle;
+
+// Preallocated ring of simulation events: an EventKind plus three int payload slots, written by the
+// game thread without allocating or locking. Any number of readers, each with its own cursor, drain
+// it on their own threads. The writer never waits: a reader that falls more than a ring behind skips
+// to the oldest event still held and counts the rest as lost.
+//
+// One writer only. Readers guard against a slot being overwritten mid-read like a seqlock: the writer
+// bumps claimed before touching a slot and published after, and a reader rechecks claimed after
+// copying a slot out.
+public final class EventRing {
+    public interface Handler {
+        void onEvent(EventKind kind, int a, int b, int c);
+    }
+
+    private static final EventKind[] KINDS = EventKind.values();
+    private static final int PAYLOAD_SLOTS = 3;
+
+    private final int capacity;
+    private final int mask;
+    private final byte[] kinds;
+    private final int[] payloads;
+    private volatile long claimed; // Events whose slot the writer has started to fill
+    private volatile long published; // Events fully written and visible to readers
+
+    // Capacity is rounded up to a power of two.
+    public EventRing(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = this.capacity - 1;
+        this.kinds = new byte[this.capacity];
+        this.payloads = new int[this.capacity * PAYLOAD_SLOTS];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void publish(EventKind kind) {
+        publish(kind, 0, 0, 0);
+    }
+
+    public void publish(EventKind kind, int a) {
+        publish(kind, a, 0, 0);
+    }
+
+    public void publish(EventKind kind, int a, int b) {
+        publish(kind, a, b, 0);
+    }
+
+    public void publish(EventKind kind, int a, int b, int c) {
+        long sequence = published;
+        claimed = sequence + 1;
+        VarHandle.storeStoreFence(); // Readers must see the claim before any of the slot's new contents
+        int slot = (int) sequence & mask;
+        kinds[slot] = (byte) kind.ordinal();
+        payloads[slot * PAYLOAD_SLOTS] = a;
+        payloads[slot * PAYLOAD_SLOTS + 1] = b;
+        payloads[slot * PAYLOAD_SLOTS + 2] = c;
+        published = sequence + 1;
+    }
+
+    // A cursor that starts at the next event published; earlier events are never seen.
+    public Reader newReader() {
+        return new Reader(published);
+    }
+
+    // Not thread-safe: each reader belongs to one consumer thread at a time.
+    public final class Reader {
+        private long next;
+        private long lost;
+
+        private Reader(long next) {
+            this.next = next;
+        }
+
+        // Hands every event published since the last drain to the handler, oldest first. Returns the
+        // number handled.
+        public int drain(Handler handler) {
+            int handled = 0;
+            long end = published;
+            while (next < end) {
+                if (end - next > capacity) { // Lapped by the writer
+                    skipTo(end - capacity);
+                    continue;
+                }
+                int slot = (int) next & mask;
+                int kind = kinds[slot];
+                int a = payloads[slot * PAYLOAD_SLOTS];
+                int b = payloads[slot * PAYLOAD_SLOTS + 1];
+                int c = payloads[slot * PAYLOAD_SLOTS + 2];
+                VarHandle.loadLoadFence(); // Finish reading the slot before checking it wasn't reclaimed
+                long overwrittenBelow = claimed - capacity;
+                if (next < overwrittenBelow) {
+                    skipTo(overwrittenBelow);
+                    end = published;
+                    continue;
+                }
+                handler.onEvent(KINDS[kind], a, b, c);
+                next++;
+                handled++;
+            }
+            return handled;
+        }
+
+        // Events overwritten before this reader got to them.
+        public long getLostCount() {
+            return lost;
+        }
+
+        private void skipTo(long sequence) {
+            lost += sequence - next;
+            next = sequence;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.roguelike.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The most recent events with player-facing text, kept raw and formatted only when asked for.
+// Drains its reader on whichever thread reads the log, never on the game thread.
+public class MessageLog implements EventRing.Handler {
+    private static final EventKind[] KINDS = EventKind.values();
+
+    private final EventRing.Reader reader;
+    private final int capacity;
+    private final byte[] kinds;
+    private final int[] payloads;
+    private long count; // Messages ever logged; the newest is at (count - 1) % capacity
+
+    public MessageLog(EventRing ring, int capacity) {
+        this.reader = ring.newReader();
+        this.capacity = capacity;
+        this.kinds = new byte[capacity];
+        this.payloads = new int[capacity * 3];
+    }
+
+    @Override
+    public void onEvent(EventKind kind, int a, int b, int c) {
+        if (!kind.hasText()) return;
+        int slot = (int) (count++ % capacity);
+        kinds[slot] = (byte) kind.ordinal();
+        payloads[slot * 3] = a;
+        payloads[slot * 3 + 1] = b;
+        payloads[slot * 3 + 2] = c;
+    }
+
+    // Up to max of the latest messages, oldest first.
+    public synchronized List<String> getRecentMessages(int max) {
+        reader.drain(this);
+        int n = (int) Math.min(Math.min(max, capacity), count);
+        List<String> messages = new ArrayList<>(n);
+        for (long m = count - n; m < count; m++) {
+            int slot = (int) (m % capacity);
+            messages.add(KINDS[kinds[slot]].describe(payloads[slot * 3], payloads[slot * 3 + 1], payloads[slot * 3 + 2]));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.roguelike.events;
+
+import com.example.roguelike.audio.SoundCue;
+
+// Console output for events: player-facing text, and the names of sound cues.
+public class StdoutEventPrinter implements EventRing.Handler {
+    private static final SoundCue[] CUES = SoundCue.values();
+
+    @Override
+    public void onEvent(EventKind kind, int a, int b, int c) {
+        if (kind == EventKind.SOUND) {
+            System.out.println("SFX: " + CUES[a].getName());
+            return;
+        }
+        String text = kind.describe(a, b, c);
+        if (text != null) {
+            System.out.println(text);
+        }
+    }
+}
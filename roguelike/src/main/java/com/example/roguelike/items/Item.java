@@ -1,6 +1,7 @@
 package com.example.roguelike.items;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class Item {
     private ItemType type;
@@ -14,30 +15,34 @@ public class Item {
     private int y;
 
     public Item(ItemType type, int x, int y) {
+        this(type, x, y, new Random());
+    }
+
+    // Rolls item stats from the given generator, so seeded level generation gives reproducible loot.
+    public Item(ItemType type, int x, int y, RandomGenerator random) {
         this.type = type;
         this.x = x;
         this.y = y;
-        generateProperties();
+        generateProperties(random);
     }
     
-    private void generateProperties() {
-        Random random = new Random();
+    private void generateProperties(RandomGenerator random) {
         switch (type) {
             case WEAPON_SWORD:
-                this.name = "Sword";
+                this.name = type.getDisplayName();
                 this.symbol = '/';
                 this.attackBonus = random.nextInt(5) + 1; // +1 to +5 attack
                 this.defenseBonus = 0;
                 break;
             case ARMOR_SHIELD:
-                this.name = "Shield";
+                this.name = type.getDisplayName();
                 this.symbol = ']';
                 this.defenseBonus = random.nextInt(3) + 1; // +1 to +3 defense
                 this.attackBonus = 0;
                 this.healingAmount = 0;
                 break;
             case CONSUMABLE_HEALTH_POTION:
-                this.name = "Health Potion";
+                this.name = type.getDisplayName();
                 this.symbol = '!'; 
                 this.attackBonus = 0;
                 this.defenseBonus = 0;
@@ -1,7 +1,17 @@
 package com.example.roguelike.items;
 
 public enum ItemType {
-    WEAPON_SWORD,
-    ARMOR_SHIELD,
-    CONSUMABLE_HEALTH_POTION
+    WEAPON_SWORD("Sword"),
+    ARMOR_SHIELD("Shield"),
+    CONSUMABLE_HEALTH_POTION("Health Potion");
+
+    private final String displayName;
+
+    ItemType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.roguelike.rendering;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+// Active rendering: the game loop draws each frame itself into a BufferStrategy back buffer and flips
+// it on screen, instead of asking Swing to repaint later. Frames are shown when the loop renders them,
+// not whenever the event thread gets round to it, so pacing follows the loop's frame cap. The drawing
+// itself is GameRenderer's FramePainter, sized to this canvas; the panel itself is never touched, so
+// no Swing component is used off the event thread. Render from one thread only (the loop's).
+public class ActiveRenderer extends Canvas {
+    private static final int BUFFERS = 2; // Page flipping where available, blitting otherwise
+
+    private final FramePainter painter;
+    private final FrameStats stats;
+    private BufferStrategy strategy;
+
+    public ActiveRenderer(GameRenderer gameRenderer, int targetFramesPerSecond) {
+        this.painter = gameRenderer.painter();
+        this.stats = new FrameStats(targetFramesPerSecond);
+        setIgnoreRepaint(true); // Nothing is drawn on the event thread
+    }
+
+    // Draws and shows one frame. Skipped until the canvas is on screen.
+    public void render() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) return;
+        if (strategy == null) {
+            createBufferStrategy(BUFFERS);
+            strategy = getBufferStrategy();
+        }
+        int width = getWidth();
+        int height = getHeight();
+
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    painter.paintFrame(g, width, height, getGraphicsConfiguration());
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored()); // The back buffer was lost and recreated mid-frame
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // Don't let the window system queue frames up
+
+        stats.framePresented(System.nanoTime()); // Read through getStats(); no I/O on the loop thread
+    }
+
+    public FrameStats getStats() {
+        return stats;
+    }
+}
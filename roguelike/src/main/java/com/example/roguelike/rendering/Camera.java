@@ -0,0 +1,52 @@
+package com.example.roguelike.rendering;
+
+import java.awt.Rectangle;
+
+// The part of the world on screen, in world pixels: a screen-sized window centered on a focus
+// point (the player) but never scrolled past the map edges, so a map smaller than the screen
+// stays at the top-left. Immutable; the renderer swaps in a new one whenever it scrolls.
+final class Camera {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    private Camera(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    static Camera centeredOn(double focusX, double focusY, int width, int height, int worldWidth, int worldHeight) {
+        int x = clamp((int) Math.round(focusX - width / 2.0), worldWidth - width);
+        int y = clamp((int) Math.round(focusY - height / 2.0), worldHeight - height);
+        return new Camera(x, y, width, height);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    int getX() { return x; }
+    int getY() { return y; }
+    int getWidth() { return width; }
+    int getHeight() { return height; }
+
+    boolean sameOrigin(Camera other) {
+        return other != null && x == other.x && y == other.y;
+    }
+
+    boolean sameSize(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    Rectangle getBounds() {
+        return new Rectangle(x, y, width, height);
+    }
+
+    // A world-pixel rectangle in screen pixels
+    Rectangle toScreen(Rectangle world) {
+        return new Rectangle(world.x - x, world.y - y, world.width, world.height);
+    }
+}
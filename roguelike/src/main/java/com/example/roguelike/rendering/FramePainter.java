@@ -0,0 +1,442 @@
+package com.example.roguelike.rendering;
+
+import com.example.roguelike.core.GameManager;
+import com.example.roguelike.core.GameState;
+import com.example.roguelike.entities.EnemyStore;
+import com.example.roguelike.entities.EnemyType;
+import com.example.roguelike.entities.OccupancyIndex;
+import com.example.roguelike.entities.Player;
+import com.example.roguelike.items.Item;
+import com.example.roguelike.world.FieldOfView;
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.TileChangeListener;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.util.List;
+
+// Draws the game (main menu, world and status line, or game-over screen) onto any Graphics of a
+// given size. It is plain Java2D rather than a Swing component, so the event thread (through
+// GameRenderer) and the game loop (through ActiveRenderer) paint with the same code, one of them per
+// game. The game data comes in as an immutable Scene published through a volatile field, so the
+// painting thread picks up a new game whole; the tile layer and the framebuffer are (re)built on the
+// painting thread itself when the scene or the requested rendering changes. The scene's entities,
+// view and map are the live game state, so painting holds the simulation lock: when the event thread
+// paints, the tick waits for it, and the other way round.
+class FramePainter {
+    static final int TILE_WIDTH = GameMap.TILE_PIXEL_WIDTH;
+    static final int TILE_HEIGHT = GameMap.TILE_PIXEL_HEIGHT;
+    static final Color OUT_OF_VIEW_SHADE = new Color(0, 0, 0, 140);
+    private static final Font ITEM_FONT = new Font("Arial", Font.BOLD, TILE_HEIGHT * 2/3);
+    // Sprites are rasterized here on first draw; the game state itself only keeps sprite seeds
+    private static final int SPRITE_ATLAS_CAPACITY = 256;
+
+    // What a frame shows. Replaced as a whole, never changed in place. A null view draws everything
+    // lit; a null occupancy falls back to scanning every enemy and item.
+    static final class Scene {
+        static final Scene EMPTY = new Scene(null, null, null, null, null, null);
+
+        final GameMap map;
+        final Player player;
+        final EnemyStore enemies;
+        final List<Item> items;
+        final FieldOfView view;
+        final OccupancyIndex occupancy;
+
+        Scene(GameMap map, Player player, EnemyStore enemies, List<Item> items, FieldOfView view, OccupancyIndex occupancy) {
+            this.map = map;
+            this.player = player;
+            this.enemies = enemies;
+            this.items = items;
+            this.view = view;
+            this.occupancy = occupancy;
+        }
+
+        Scene withView(FieldOfView view) {
+            return new Scene(map, player, enemies, items, view, occupancy);
+        }
+
+        Scene withOccupancy(OccupancyIndex occupancy) {
+            return new Scene(map, player, enemies, items, view, occupancy);
+        }
+    }
+
+    private final GameManager gameManager;
+    private final Color background;
+    private final TileChangeListener tileRedrawn; // Told about each changed tile after the layer queues it; may be null
+    private volatile Scene scene = Scene.EMPTY;
+    private volatile Camera camera; // Where the next frame paints; null until the first one
+    private volatile boolean framebufferRequested;
+    private final Object simulationLock = new Object(); // Held by each paint and, through GameRenderer, each tick
+
+    // The player is drawn between where it stood at the previous and the latest simulation tick,
+    // alpha of the way along, so motion stays smooth when frames and ticks don't line up.
+    // Written by the loop thread at each tick, for the scene recorded with them.
+    private volatile double interpolationAlpha = 1.0;
+    private volatile Scene tickScene;
+    private int previousTickPlayerX;
+    private int previousTickPlayerY;
+    private int latestTickPlayerX;
+    private int latestTickPlayerY;
+
+    // Painting thread only
+    private SpriteAtlas spriteAtlas; // Created on first paint, once the screen's pixel format is known
+    private TileLayerCache tileLayer; // Static map image; changed tiles are redrawn into it
+    private GameMap tileLayerMap; // The map tileLayer was built for
+    private FramebufferRenderer framebuffer; // When set, the world is rasterized in software instead
+
+    FramePainter(GameManager gameManager, Color background, TileChangeListener tileRedrawn) {
+        this.gameManager = gameManager;
+        this.background = background;
+        this.tileRedrawn = tileRedrawn;
+    }
+
+    // From any thread; the next frame shows the new scene
+    void setScene(Scene scene) {
+        this.scene = scene;
+        this.camera = null;
+    }
+
+    Scene getScene() {
+        return scene;
+    }
+
+    Camera getCamera() {
+        return camera;
+    }
+
+    Object simulationLock() {
+        return simulationLock;
+    }
+
+    // From any thread; the painting thread switches over at its next frame.
+    void setFramebufferRendering(boolean enabled) {
+        this.framebufferRequested = enabled;
+    }
+
+    boolean isFramebufferRendering() {
+        return framebufferRequested;
+    }
+
+    void setInterpolationAlpha(double alpha) {
+        this.interpolationAlpha = alpha;
+    }
+
+    // Called by the game loop at the start of every simulation tick.
+    void onSimulationTick() {
+        Scene current = scene;
+        Player player = current.player;
+        if (player == null) return;
+        if (tickScene != current) { // A new game; nothing to move from
+            previousTickPlayerX = player.getX();
+            previousTickPlayerY = player.getY();
+        } else {
+            previousTickPlayerX = latestTickPlayerX;
+            previousTickPlayerY = latestTickPlayerY;
+        }
+        latestTickPlayerX = player.getX();
+        latestTickPlayerY = player.getY();
+        tickScene = current;
+    }
+
+    // Points the camera at the interpolated player and returns it, or null while there is no world.
+    Camera followPlayer(int width, int height) {
+        return followPlayer(scene, width, height);
+    }
+
+    private Camera followPlayer(Scene current, int width, int height) {
+        if (current.map == null || current.player == null) return null;
+        double alpha = interpolationAlpha;
+        Camera view = Camera.centeredOn(playerPixelX(current, alpha) + TILE_WIDTH / 2.0, playerPixelY(current, alpha) + TILE_HEIGHT / 2.0,
+                                        width, height,
+                                        current.map.getMapWidthInTiles() * TILE_WIDTH, current.map.getMapHeightInTiles() * TILE_HEIGHT);
+        camera = view;
+        return view;
+    }
+
+    private int playerPixelX(Scene current, double alpha) {
+        if (tickScene != current) return current.player.getX() * TILE_WIDTH; // No tick of this game yet
+        return (int) Math.round((previousTickPlayerX + (latestTickPlayerX - previousTickPlayerX) * alpha) * TILE_WIDTH);
+    }
+
+    private int playerPixelY(Scene current, double alpha) {
+        if (tickScene != current) return current.player.getY() * TILE_HEIGHT;
+        return (int) Math.round((previousTickPlayerY + (latestTickPlayerY - previousTickPlayerY) * alpha) * TILE_HEIGHT);
+    }
+
+    // Active rendering: draws a whole frame of width x height onto g (e.g. a BufferStrategy back
+    // buffer), background included, with the camera following the player every frame, since nothing
+    // is repainted partially.
+    void paintFrame(Graphics g, int width, int height, GraphicsConfiguration config) {
+        if (gameManager.getCurrentGameState() == GameState.PLAYING) {
+            followPlayer(width, height);
+        }
+        g.setClip(0, 0, width, height);
+        g.setColor(background);
+        g.fillRect(0, 0, width, height);
+        paint(g, width, height, config);
+    }
+
+    // Draws onto g, whose background is already filled; only g's clip needs to come out right.
+    // config is the screen's pixel format, or null for plain images.
+    void paint(Graphics g, int width, int height, GraphicsConfiguration config) {
+        GameState currentState = gameManager.getCurrentGameState();
+
+        if (currentState == GameState.MAIN_MENU) {
+            drawMainMenu(g, width, height);
+        } else if (currentState == GameState.GAME_OVER) {
+            synchronized (simulationLock) {
+                drawGameOverScreen(g, width, height, scene.player);
+            }
+        } else if (currentState == GameState.PLAYING) {
+            Scene current = scene;
+            if (current.map == null || current.player == null) { // Ensure game data is loaded for PLAYING state
+                return;
+            }
+            synchronized (simulationLock) {
+                drawPlayingScreen(g, current, width, height, config);
+            }
+        }
+    }
+
+    private SpriteAtlas spriteAtlas(GraphicsConfiguration config) {
+        if (spriteAtlas == null) {
+            spriteAtlas = new SpriteAtlas(TILE_WIDTH, TILE_HEIGHT, SPRITE_ATLAS_CAPACITY, config);
+        }
+        return spriteAtlas;
+    }
+
+    private TileLayerCache tileLayer(GameMap map, GraphicsConfiguration config) {
+        if (tileLayerMap != map) {
+            TileLayerCache layer = new TileLayerCache(map, config, OUT_OF_VIEW_SHADE);
+            map.addTileChangeListener((x, y, oldType, newType) -> {
+                layer.invalidate(x, y);
+                if (tileRedrawn != null) {
+                    tileRedrawn.tileChanged(x, y, oldType, newType);
+                }
+            });
+            tileLayer = layer;
+            tileLayerMap = map;
+        }
+        return tileLayer;
+    }
+
+    // Only the part of the world inside both the camera and the clip is touched: tiles come from the
+    // tile layer by chunk, and enemies and items from the occupancy index by tile, so the cost depends
+    // on the screen size, not the map size.
+    private void drawPlayingScreen(Graphics g, Scene current, int width, int height, GraphicsConfiguration config) {
+        Camera view = camera;
+        if (view == null || !view.sameSize(width, height)) {
+            view = followPlayer(current, width, height); // First paint, or the panel was resized
+        }
+        if (framebufferRequested != (framebuffer != null)) {
+            framebuffer = framebufferRequested ? new FramebufferRenderer(background, OUT_OF_VIEW_SHADE) : null;
+        }
+        Graphics2D world = (Graphics2D) g.create();
+        world.translate(-view.getX(), -view.getY());
+        Rectangle clip = world.getClipBounds();
+        clip = clip != null ? clip.intersection(view.getBounds()) : view.getBounds();
+        if (!clip.isEmpty()) {
+            drawWorld(world, current, clip, view, config);
+        }
+        world.dispose();
+
+        // UI Elements (Health, Inventory) - Kept pixel-based, drawn on top.
+        Player player = current.player;
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 12));
+
+        int defenseValue = player.getBaseDefense();
+        if (player.getEquippedArmor() != null) {
+            defenseValue += player.getEquippedArmor().getDefenseBonus();
+        }
+
+        String stats = "HP: " + player.getHealth() + "/" + player.getMaxHealth() +
+                       "  Atk: " + player.getAttackPower() +
+                       "  Def: " + defenseValue +
+                       "  Lvl: " + player.getCurrentLevel() +
+                       "  XP: " + player.getExperiencePoints() + "/" + player.getExperienceToNextLevel() +
+                       "  Potions: " + player.getConsumablesInventory().size();
+
+        g.drawString(stats, 10, height - 10);
+    }
+
+    private void drawWorld(Graphics2D g, Scene current, Rectangle clip, Camera view, GraphicsConfiguration config) {
+        GameMap gameMap = current.map;
+        FieldOfView playerView = current.view;
+        OccupancyIndex occupancy = current.occupancy;
+        EnemyStore enemies = current.enemies;
+        int firstTileX = Math.max(0, clip.x / TILE_WIDTH);
+        int firstTileY = Math.max(0, clip.y / TILE_HEIGHT);
+        int lastTileX = Math.min(gameMap.getMapWidthInTiles() - 1, (clip.x + clip.width - 1) / TILE_WIDTH);
+        int lastTileY = Math.min(gameMap.getMapHeightInTiles() - 1, (clip.y + clip.height - 1) / TILE_HEIGHT);
+
+        // 1. Draw the GameMap tiles (pre-rendered, only the part being repainted)
+        FramebufferRenderer software = framebuffer;
+        if (software != null) {
+            software.begin(view, clip); // Tiles are filled in by finish(), under everything added meanwhile
+        } else {
+            TileLayerCache layer = tileLayer(gameMap, config);
+            layer.draw(g, clip, playerView);
+            layer.retainAround(view.getBounds()); // Frees chunk images the camera has left behind
+        }
+
+        // 2. Draw the Player
+        Player player = current.player;
+        double alpha = interpolationAlpha;
+        // The damage flash is a baked variant of the sprite; the simulation expires it after a tick
+        drawSprite(g, config, player.getSpriteSeed(), null, player.wasJustDamaged(), playerPixelX(current, alpha), playerPixelY(current, alpha));
+
+        // Draw Enemies; only tiles the player can see can hold a visible one
+        if (enemies != null) {
+            int fromX = firstTileX, toX = lastTileX, fromY = firstTileY, toY = lastTileY;
+            if (playerView != null) {
+                int radius = playerView.getRadius();
+                fromX = Math.max(fromX, playerView.getOriginX() - radius);
+                toX = Math.min(toX, playerView.getOriginX() + radius);
+                fromY = Math.max(fromY, playerView.getOriginY() - radius);
+                toY = Math.min(toY, playerView.getOriginY() + radius);
+            }
+            if (occupancy != null) {
+                for (int y = fromY; y <= toY; y++) {
+                    for (int x = fromX; x <= toX; x++) {
+                        int actor = occupancy.getActorAt(x, y);
+                        if (actor == OccupancyIndex.NONE || actor == OccupancyIndex.PLAYER) continue;
+                        int i = enemies.indexOf(actor);
+                        if (i >= 0) {
+                            drawEnemy(g, config, current, i);
+                        }
+                    }
+                }
+            } else { // No index to ask; fall back to checking every enemy
+                for (int i = 0; i < enemies.size(); i++) {
+                    int enemyX = enemies.getX(i);
+                    int enemyY = enemies.getY(i);
+                    if (enemyX >= fromX && enemyX <= toX && enemyY >= fromY && enemyY <= toY) {
+                        drawEnemy(g, config, current, i);
+                    }
+                }
+            }
+        }
+
+        // Draw Items on Map
+        if (current.items != null) {
+            if (occupancy != null) {
+                occupancy.forEachItemIn(firstTileX, firstTileY, lastTileX, lastTileY, item -> drawItem(g, item));
+            } else {
+                for (Item item : current.items) {
+                    if (item.getX() >= firstTileX && item.getX() <= lastTileX && item.getY() >= firstTileY && item.getY() <= lastTileY) {
+                        drawItem(g, item);
+                    }
+                }
+            }
+        }
+
+        if (software != null) {
+            software.finish(g, gameMap, playerView);
+        }
+    }
+
+    private void drawEnemy(Graphics g, GraphicsConfiguration config, Scene current, int i) {
+        EnemyStore enemies = current.enemies;
+        int enemyX = enemies.getX(i);
+        int enemyY = enemies.getY(i);
+        if (current.view != null && !current.view.isVisible(enemyX, enemyY)) {
+            return; // Hidden behind walls or out of sight range
+        }
+        drawSprite(g, config, enemies.getSpriteSeed(i), enemies.getType(i), enemies.wasJustDamaged(i), enemyX * TILE_WIDTH, enemyY * TILE_HEIGHT);
+    }
+
+    // A null type means the player sprite.
+    private void drawSprite(Graphics g, GraphicsConfiguration config, long seed, EnemyType type, boolean damaged, int x, int y) {
+        if (framebuffer != null) {
+            framebuffer.addSprite(seed, type, damaged, x, y);
+        } else {
+            spriteAtlas(config).draw(g, seed, type, damaged, x, y);
+        }
+    }
+
+    private void drawItem(Graphics g, Item item) {
+        if (framebuffer != null) {
+            framebuffer.addGlyph(item.getSymbol(), item.getX() * TILE_WIDTH, item.getY() * TILE_HEIGHT);
+        } else {
+            drawItemSymbol(g, item.getSymbol(), item.getX() * TILE_WIDTH, item.getY() * TILE_HEIGHT);
+        }
+    }
+
+    // Centers the symbol in the tile whose top-left corner is at (px, py)
+    static void drawItemSymbol(Graphics g, char symbol, int px, int py) {
+        g.setColor(Color.YELLOW); // Item color
+        g.setFont(ITEM_FONT);
+        String itemSymbol = String.valueOf(symbol);
+        FontMetrics fm = g.getFontMetrics();
+        int charWidth = fm.stringWidth(itemSymbol);
+        int charHeight = fm.getAscent() - fm.getDescent(); // More accurate height
+
+        int drawX = px + (TILE_WIDTH - charWidth) / 2;
+        int drawY = py + (TILE_HEIGHT + charHeight) / 2 - fm.getDescent() ;
+        g.drawString(itemSymbol, drawX, drawY);
+    }
+
+    private static void drawMainMenu(Graphics g, int width, int height) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+
+        g.setFont(new Font("Arial", Font.BOLD, 48));
+        g.setColor(Color.WHITE);
+        String title = "Roguelike Adventure";
+        FontMetrics metrics = g.getFontMetrics();
+        int x = (width - metrics.stringWidth(title)) / 2;
+        int y = height / 3;
+        g.drawString(title, x, y);
+
+        g.setFont(new Font("Arial", Font.PLAIN, 24));
+        String startMsg = "Press [S] or [Enter] to Start";
+        x = (width - metrics.stringWidth(startMsg)) / 2 + metrics.stringWidth(title)/3 ; // Adjust for font change
+        y += metrics.getHeight() * 2;
+        g.drawString(startMsg, x, y);
+
+        String exitMsg = "Press [X] or [Esc] to Exit";
+        x = (width - metrics.stringWidth(exitMsg)) / 2 + metrics.stringWidth(title)/3; // Adjust for font change
+        y += metrics.getHeight();
+        g.drawString(exitMsg, x, y);
+    }
+
+    private static void drawGameOverScreen(Graphics g, int width, int height, Player player) {
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(0, 0, width, height);
+
+        g.setFont(new Font("Arial", Font.BOLD, 48));
+        g.setColor(Color.RED);
+        String title = "Game Over!";
+        FontMetrics metrics = g.getFontMetrics();
+        int x = (width - metrics.stringWidth(title)) / 2;
+        int y = height / 3;
+        g.drawString(title, x, y);
+
+        g.setFont(new Font("Arial", Font.PLAIN, 24));
+        g.setColor(Color.WHITE);
+
+        if (player != null) { // Player might be null if game over before initialization
+            String levelMsg = "You reached Level: " + player.getCurrentLevel();
+            x = (width - metrics.stringWidth(levelMsg)) / 2 + metrics.stringWidth(title)/3;
+            y += metrics.getHeight() * 1.5;
+            g.drawString(levelMsg, x, y);
+        }
+
+        String restartMsg = "Press [R] or [Enter] to Restart";
+        x = (width - metrics.stringWidth(restartMsg)) / 2 + metrics.stringWidth(title)/3;
+        y += metrics.getHeight() * 1.5;
+        g.drawString(restartMsg, x, y);
+
+        String menuMsg = "Press [M] or [Esc] to Main Menu";
+        x = (width - metrics.stringWidth(menuMsg)) / 2 + metrics.stringWidth(title)/3;
+        y += metrics.getHeight();
+        g.drawString(menuMsg, x, y);
+
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.roguelike.rendering;
+
+import java.util.Arrays;
+
+// Presentation timing: the interval between successive frames shown, over the last SAMPLES frames,
+// plus running totals. A frame is missed when it arrives more than half a frame late; a gap of n
+// target frames counts n - 1 misses. Written by the render thread, readable from any thread.
+public class FrameStats {
+    private static final int SAMPLES = 1024;
+
+    private final long targetFrameNanos;
+    private final long[] intervals = new long[SAMPLES]; // Ring of the latest intervals
+    private int sampleCount;
+    private int nextSample;
+    private long lastPresentNanos;
+    private long framesPresented;
+    private long missedFrames;
+
+    public FrameStats(int targetFramesPerSecond) {
+        this.targetFrameNanos = 1_000_000_000L / targetFramesPerSecond;
+    }
+
+    public synchronized void framePresented(long now) {
+        if (framesPresented++ > 0) {
+            long interval = now - lastPresentNanos;
+            intervals[nextSample] = interval;
+            nextSample = (nextSample + 1) % SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, SAMPLES);
+            if (interval > targetFrameNanos + targetFrameNanos / 2) {
+                missedFrames += (interval - targetFrameNanos / 2) / targetFrameNanos;
+            }
+        }
+        lastPresentNanos = now;
+    }
+
+    // Nearest-rank percentile (0-100) of the recent frame intervals, or 0 before two frames were shown
+    public synchronized double getPercentileMillis(double percentile) {
+        if (sampleCount == 0) return 0;
+        long[] sorted = Arrays.copyOf(intervals, sampleCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sampleCount);
+        return sorted[Math.max(0, Math.min(sampleCount - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    public synchronized long getFramesPresented() { return framesPresented; }
+    public synchronized long getMissedFrames() { return missedFrames; }
+    public double getTargetFrameMillis() { return targetFrameNanos / 1_000_000.0; }
+
+    public String summary() {
+        return String.format("Frames: %d shown, %d missed; frame time p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms (target %.1f ms)",
+                getFramesPresented(), getMissedFrames(), getPercentileMillis(50), getPercentileMillis(95),
+                getPercentileMillis(99), getPercentileMillis(100), getTargetFrameMillis());
+    }
+}
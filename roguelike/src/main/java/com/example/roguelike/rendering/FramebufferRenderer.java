@@ -0,0 +1,272 @@
+package com.example.roguelike.rendering;
+
+import com.example.roguelike.entities.EnemyType;
+import com.example.roguelike.world.FieldOfView;
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.TileType;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+// A software alternative to drawing the world with Java2D calls. Tiles, sprites and item glyphs are
+// rasterized once into tile-sized int[] ARGB stamps (by the same code the Java2D path draws with),
+// and a frame copies them straight into the int[] behind one BufferedImage, shown with a single blit.
+// The frame's rows are split into bands filled in parallel on a fork-join pool, which pays off at
+// high resolutions on many-core machines whose Java2D pipeline is software-only. The pool is the
+// renderers' own by default, not the common pool, which the simulation's enemy planning runs on.
+//
+// Per frame: begin(), addSprite()/addGlyph() for everything on top of the map, then finish().
+// Paint thread only; the bands only read the map, the view and the draw list gathered before them.
+class FramebufferRenderer {
+    private static final int TILE_WIDTH = GameMap.TILE_PIXEL_WIDTH;
+    private static final int TILE_HEIGHT = GameMap.TILE_PIXEL_HEIGHT;
+    private static final int BAND_ROWS = 2 * TILE_HEIGHT; // Pixel rows below which a band is filled, not split
+    private static final int SPRITE_STAMP_CAPACITY = 256;
+
+    private final ForkJoinPool pool;
+    private final int[][] litTiles; // By TileType ordinal; the extra last entry is for tiles off the map
+    private final int[][] shadedTiles;
+    private final Map<ProceduralSpriteData, int[][]> spriteStamps; // {sprite, damage-flash variant}
+    private final SpriteLookup spriteLookup = new SpriteLookup(SPRITE_STAMP_CAPACITY * 4);
+    private final Map<Character, int[]> glyphStamps = new HashMap<>();
+    // Per thread, the stamp of each tile in the row a band is copying; grown to the widest row seen
+    private final ThreadLocal<int[][]> rowStampScratch = ThreadLocal.withInitial(() -> new int[0][]);
+
+    private BufferedImage frame;
+    private int[] pixels;
+
+    // This frame's camera, clip (in screen pixels) and what goes on top of the map, in drawing order
+    private Camera camera;
+    private Rectangle clip;
+    private int[][] stamps = new int[64][];
+    private int[] stampX = new int[64];
+    private int[] stampY = new int[64];
+    private int stampCount;
+
+    FramebufferRenderer(Color background, Color outOfViewShade) {
+        this(background, outOfViewShade, BandPool.POOL);
+    }
+
+    // Shared by every framebuffer renderer and started on first use. Daemon threads, so an open pool
+    // never keeps the game from exiting.
+    private static final class BandPool {
+        static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("framebuffer-band-" + worker.getPoolIndex());
+            worker.setDaemon(true);
+            return worker;
+        }, null, false);
+    }
+
+    FramebufferRenderer(Color background, Color outOfViewShade, ForkJoinPool pool) {
+        this.pool = pool;
+        TileType[] types = TileType.values();
+        this.litTiles = new int[types.length + 1][];
+        this.shadedTiles = new int[types.length + 1][];
+        for (TileType type : types) {
+            litTiles[type.ordinal()] = tileStamp(type, null);
+            shadedTiles[type.ordinal()] = tileStamp(type, outOfViewShade);
+        }
+        int[] offMap = new int[TILE_WIDTH * TILE_HEIGHT];
+        Arrays.fill(offMap, background.getRGB());
+        litTiles[types.length] = offMap;
+        shadedTiles[types.length] = offMap;
+        this.spriteStamps = new LinkedHashMap<ProceduralSpriteData, int[][]>(SPRITE_STAMP_CAPACITY * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ProceduralSpriteData, int[][]> eldest) {
+                return size() > SPRITE_STAMP_CAPACITY;
+            }
+        };
+    }
+
+    // Starts a frame covering clip, given in world pixels like everything else added to it.
+    void begin(Camera camera, Rectangle clip) {
+        if (frame == null || frame.getWidth() != camera.getWidth() || frame.getHeight() != camera.getHeight()) {
+            frame = new BufferedImage(Math.max(1, camera.getWidth()), Math.max(1, camera.getHeight()), BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        }
+        this.camera = camera;
+        this.clip = camera.toScreen(clip).intersection(new Rectangle(0, 0, frame.getWidth(), frame.getHeight()));
+        Arrays.fill(stamps, 0, stampCount, null);
+        stampCount = 0;
+    }
+
+    // A null type means the player sprite.
+    void addSprite(long seed, EnemyType type, boolean damaged, int x, int y) {
+        ProceduralSpriteData sprite = spriteLookup.get(seed, type);
+        int[][] variants = spriteStamps.get(sprite);
+        if (variants == null) {
+            variants = spriteStamp(sprite);
+            spriteStamps.put(sprite, variants);
+        }
+        add(variants[damaged ? 1 : 0], x, y);
+    }
+
+    // The item symbol for the tile whose top-left corner is at (x, y)
+    void addGlyph(char symbol, int x, int y) {
+        int[] stamp = glyphStamps.get(symbol);
+        if (stamp == null) {
+            BufferedImage image = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            FramePainter.drawItemSymbol(g, symbol, 0, 0);
+            g.dispose();
+            stamp = pixelsOf(image);
+            glyphStamps.put(symbol, stamp);
+        }
+        add(stamp, x, y);
+    }
+
+    private void add(int[] stamp, int x, int y) {
+        if (stampCount == stamps.length) {
+            stamps = Arrays.copyOf(stamps, stampCount * 2);
+            stampX = Arrays.copyOf(stampX, stampCount * 2);
+            stampY = Arrays.copyOf(stampY, stampCount * 2);
+        }
+        stamps[stampCount] = stamp;
+        stampX[stampCount] = x - camera.getX();
+        stampY[stampCount] = y - camera.getY();
+        stampCount++;
+    }
+
+    // Rasterizes the frame's clip in parallel bands and blits it. g draws in world pixels.
+    void finish(Graphics g, GameMap map, FieldOfView view) {
+        if (clip.isEmpty()) return;
+        pool.invoke(new Band(map, view, clip.y, clip.y + clip.height));
+        int x = camera.getX() + clip.x;
+        int y = camera.getY() + clip.y;
+        g.drawImage(frame, x, y, x + clip.width, y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, null);
+    }
+
+    private class Band extends RecursiveAction {
+        private final GameMap map;
+        private final FieldOfView view;
+        private final int fromRow;
+        private final int toRow;
+
+        Band(GameMap map, FieldOfView view, int fromRow, int toRow) {
+            this.map = map;
+            this.view = view;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= BAND_ROWS) {
+                fillRows(map, view, fromRow, toRow);
+                return;
+            }
+            int mid = (fromRow + toRow) >>> 1;
+            invokeAll(new Band(map, view, fromRow, mid), new Band(map, view, mid, toRow));
+        }
+    }
+
+    // Screen rows [fromRow, toRow) of the clip: map tiles first, then the stamps on top
+    private void fillRows(GameMap map, FieldOfView view, int fromRow, int toRow) {
+        int width = frame.getWidth();
+        int left = clip.x;
+        int right = clip.x + clip.width;
+        int firstTileX = (camera.getX() + left) / TILE_WIDTH;
+        int tilesInRow = (camera.getX() + right - 1) / TILE_WIDTH - firstTileX + 1;
+        int[][] rowStamps = rowStampScratch.get();
+        if (rowStamps.length < tilesInRow) {
+            rowStamps = new int[tilesInRow][];
+            rowStampScratch.set(rowStamps);
+        }
+        int row = fromRow;
+        while (row < toRow) {
+            // Look each tile up once per tile row, then copy its pixel rows
+            int worldY = camera.getY() + row;
+            int tileY = worldY / TILE_HEIGHT;
+            int rowsInTile = Math.min(TILE_HEIGHT - worldY % TILE_HEIGHT, toRow - row);
+            for (int i = 0; i < tilesInRow; i++) {
+                rowStamps[i] = tileStampAt(map, view, firstTileX + i, tileY);
+            }
+            for (int end = row + rowsInTile; row < end; row++) {
+                int stampRow = ((camera.getY() + row) % TILE_HEIGHT) * TILE_WIDTH;
+                int x = left;
+                while (x < right) {
+                    int worldX = camera.getX() + x;
+                    int stampColumn = worldX % TILE_WIDTH;
+                    int run = Math.min(TILE_WIDTH - stampColumn, right - x);
+                    System.arraycopy(rowStamps[worldX / TILE_WIDTH - firstTileX], stampRow + stampColumn, pixels, row * width + x, run);
+                    x += run;
+                }
+            }
+        }
+
+        for (int k = 0; k < stampCount; k++) {
+            int top = Math.max(fromRow, stampY[k]);
+            int bottom = Math.min(toRow, stampY[k] + TILE_HEIGHT);
+            int from = Math.max(left, stampX[k]);
+            int to = Math.min(right, stampX[k] + TILE_WIDTH);
+            int[] stamp = stamps[k];
+            for (int y = top; y < bottom; y++) {
+                int source = (y - stampY[k]) * TILE_WIDTH - stampX[k];
+                int target = y * width;
+                for (int x = from; x < to; x++) {
+                    int color = stamp[source + x];
+                    int alpha = color >>> 24;
+                    if (alpha == 0xFF) {
+                        pixels[target + x] = color;
+                    } else if (alpha != 0) {
+                        pixels[target + x] = blend(color, alpha, pixels[target + x]);
+                    }
+                }
+            }
+        }
+    }
+
+    private int[] tileStampAt(GameMap map, FieldOfView view, int x, int y) {
+        TileType type = x < map.getMapWidthInTiles() && y < map.getMapHeightInTiles() ? map.getTileType(x, y) : null;
+        int index = type != null ? type.ordinal() : litTiles.length - 1;
+        return view != null && !view.isVisible(x, y) ? shadedTiles[index] : litTiles[index];
+    }
+
+    // Source-over of a translucent color onto an opaque one
+    private static int blend(int color, int alpha, int under) {
+        int inverse = 0xFF - alpha;
+        int r = (((color >> 16) & 0xFF) * alpha + ((under >> 16) & 0xFF) * inverse + 127) / 0xFF;
+        int g = (((color >> 8) & 0xFF) * alpha + ((under >> 8) & 0xFF) * inverse + 127) / 0xFF;
+        int b = ((color & 0xFF) * alpha + (under & 0xFF) * inverse + 127) / 0xFF;
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    // Same steps as TileLayerCache: the tile, then for out-of-view tiles the shade and the grid lines again
+    private static int[] tileStamp(TileType type, Color shade) {
+        BufferedImage image = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        TileLayerCache.paintTile(g, type, 0, 0);
+        if (shade != null) {
+            g.setColor(shade);
+            g.fillRect(0, 0, TILE_WIDTH, TILE_HEIGHT);
+            TileLayerCache.paintGridLines(g, 0, 0);
+        }
+        g.dispose();
+        return pixelsOf(image);
+    }
+
+    private static int[][] spriteStamp(ProceduralSpriteData sprite) {
+        BufferedImage image = new BufferedImage(2 * TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        SpriteAtlas.paintCells(g, sprite, 0, 0, TILE_WIDTH, TILE_HEIGHT);
+        g.dispose();
+        return new int[][] { pixelsOf(image.getSubimage(0, 0, TILE_WIDTH, TILE_HEIGHT)),
+                             pixelsOf(image.getSubimage(TILE_WIDTH, 0, TILE_WIDTH, TILE_HEIGHT)) };
+    }
+
+    private static int[] pixelsOf(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
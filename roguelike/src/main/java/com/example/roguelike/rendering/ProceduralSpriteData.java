@@ -1,31 +1,40 @@
 package com.example.roguelike.rendering;
 import java.awt.Color;
+import java.util.Arrays;
 
-public class ProceduralSpriteData {
+// A procedural sprite as packed ARGB ints, 0 meaning "off" or transparent. Immutable and compared
+// by content, so SpriteGenerator can hand one shared instance to every entity that looks the same.
+public final class ProceduralSpriteData {
     public static final int SPRITE_GRID_SIZE = 5; // e.g., a 5x5 grid per tile
-    private Color[][] gridColors; // Colors for each part of the 5x5 grid
-    // Other potential fields: symmetry rules, base entity color for reference
+    private final int[] argb; // Row-major, SPRITE_GRID_SIZE * SPRITE_GRID_SIZE
+    private final int hash;
 
-    public ProceduralSpriteData() {
-        gridColors = new Color[SPRITE_GRID_SIZE][SPRITE_GRID_SIZE];
-        // Initialize with null or a transparent color
-        for (int i = 0; i < SPRITE_GRID_SIZE; i++) {
-            for (int j = 0; j < SPRITE_GRID_SIZE; j++) {
-                gridColors[i][j] = null; // Explicitly null, meaning "off" or transparent
-            }
-        }
+    // Takes ownership of the array; SpriteGenerator never touches it again.
+    ProceduralSpriteData(int[] argb) {
+        this.argb = argb;
+        this.hash = Arrays.hashCode(argb);
     }
 
-    public void setColorAt(int x, int y, Color color) {
+    public int getArgbAt(int x, int y) {
         if (x >= 0 && x < SPRITE_GRID_SIZE && y >= 0 && y < SPRITE_GRID_SIZE) {
-            gridColors[x][y] = color;
+            return argb[y * SPRITE_GRID_SIZE + x];
         }
+        return 0;
     }
 
     public Color getColorAt(int x, int y) {
-        if (x >= 0 && x < SPRITE_GRID_SIZE && y >= 0 && y < SPRITE_GRID_SIZE) {
-            return gridColors[x][y];
-        }
-        return null;
+        int color = getArgbAt(x, y);
+        return color != 0 ? new Color(color, true) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProceduralSpriteData && hash == ((ProceduralSpriteData) o).hash
+               && Arrays.equals(argb, ((ProceduralSpriteData) o).argb);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 }
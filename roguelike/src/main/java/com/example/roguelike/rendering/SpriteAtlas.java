@@ -0,0 +1,111 @@
+package com.example.roguelike.rendering;
+
+import com.example.roguelike.entities.EnemyType;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Procedural sprites rasterized once into one shared image, so drawing an entity is a single blit
+// instead of a fillRect per sprite part. Each sprite takes two cells side by side: the sprite, and
+// its damage-flash variant with the flash already baked in. Entries are keyed by the interned
+// sprite, so entities that look the same share one slot, and are evicted least-recently-drawn first
+// once every slot is taken; an evicted slot's cells are simply overwritten by the next sprite. The
+// cell size (the tile size) is fixed per atlas. Paint thread only.
+class SpriteAtlas {
+    private static final int SLOTS_PER_ROW = 16;
+    static final Color DAMAGE_FLASH = new Color(255, 255, 255, 128); // Semi-transparent white
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int capacity;
+    private final BufferedImage image;
+    private final LinkedHashMap<ProceduralSpriteData, Integer> slots; // Access-ordered: eldest = least recently drawn
+    private final SpriteLookup lookup; // (seed, type) to sprite without allocating
+    private int nextUnusedSlot;
+
+    SpriteAtlas(int cellWidth, int cellHeight, int capacity, GraphicsConfiguration config) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.capacity = capacity;
+        int width = SLOTS_PER_ROW * 2 * cellWidth;
+        int height = ((capacity + SLOTS_PER_ROW - 1) / SLOTS_PER_ROW) * cellHeight;
+        this.image = config != null ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.slots = new LinkedHashMap<>(capacity * 2, 0.75f, true);
+        this.lookup = new SpriteLookup(capacity * 4);
+    }
+
+    // A null type means the player sprite.
+    void draw(Graphics g, long seed, EnemyType type, boolean damaged, int x, int y) {
+        int slot = slotFor(seed, type);
+        int sx = (slot % SLOTS_PER_ROW) * 2 * cellWidth + (damaged ? cellWidth : 0);
+        int sy = (slot / SLOTS_PER_ROW) * cellHeight;
+        g.drawImage(image, x, y, x + cellWidth, y + cellHeight, sx, sy, sx + cellWidth, sy + cellHeight, null);
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    private int slotFor(long seed, EnemyType type) {
+        ProceduralSpriteData sprite = lookup.get(seed, type);
+        Integer slot = slots.get(sprite);
+        if (slot != null) {
+            return slot;
+        }
+
+        int newSlot;
+        if (nextUnusedSlot < capacity) {
+            newSlot = nextUnusedSlot++;
+        } else {
+            Map.Entry<ProceduralSpriteData, Integer> eldest = slots.entrySet().iterator().next();
+            newSlot = eldest.getValue();
+            slots.remove(eldest.getKey());
+        }
+        rasterize(sprite, newSlot);
+        slots.put(sprite, newSlot);
+        return newSlot;
+    }
+
+    // A null type means the player sprite. Memoized, so this costs no generation per frame, but it
+    // builds a lookup key each call; per-frame callers go through a SpriteLookup instead.
+    static ProceduralSpriteData spriteFor(long seed, EnemyType type) {
+        return type != null ? SpriteGenerator.generateEnemySprite(seed, type, SpriteGenerator.enemyBaseColor(type))
+                            : SpriteGenerator.generatePlayerSprite(seed);
+    }
+
+    private void rasterize(ProceduralSpriteData sprite, int slot) {
+        int x = (slot % SLOTS_PER_ROW) * 2 * cellWidth;
+        int y = (slot / SLOTS_PER_ROW) * cellHeight;
+        Graphics2D g = image.createGraphics();
+        g.setBackground(new Color(0, 0, 0, 0));
+        g.clearRect(x, y, 2 * cellWidth, cellHeight); // The slot may hold an evicted sprite
+        paintCells(g, sprite, x, y, cellWidth, cellHeight);
+        g.dispose();
+    }
+
+    // Paints the sprite at (x, y) and its damage-flash variant one cell to the right, onto a clear background.
+    static void paintCells(Graphics2D g, ProceduralSpriteData sprite, int x, int y, int cellWidth, int cellHeight) {
+        int partWidth = cellWidth / ProceduralSpriteData.SPRITE_GRID_SIZE;
+        int partHeight = cellHeight / ProceduralSpriteData.SPRITE_GRID_SIZE;
+        for (int variant = 0; variant < 2; variant++) {
+            int cellX = x + variant * cellWidth;
+            for (int py = 0; py < ProceduralSpriteData.SPRITE_GRID_SIZE; py++) {
+                for (int px = 0; px < ProceduralSpriteData.SPRITE_GRID_SIZE; px++) {
+                    Color partColor = sprite.getColorAt(px, py);
+                    if (partColor != null) {
+                        g.setColor(partColor);
+                        g.fillRect(cellX + px * partWidth, y + py * partHeight, partWidth, partHeight);
+                    }
+                }
+            }
+        }
+        g.setColor(DAMAGE_FLASH); // Covers the whole cell, like the flash drawn over a tile used to
+        g.fillRect(x + cellWidth, y, cellWidth, cellHeight);
+    }
+}
@@ -3,10 +3,48 @@ package com.example.roguelike.rendering;
 import com.example.roguelike.entities.EnemyType; // If enemy sprites vary significantly
 import java.awt.Color;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Sprites are memoized: the same (seed, type, color hint) always returns the same instance, and
+// sprites that come out pixel-identical (every scout with the same hint, for one) share a single
+// interned instance. Safe to call from any thread.
 public class SpriteGenerator {
+    private static final int MAX_CACHED_SPRITES = 1 << 16; // Past this the caches start over rather than grow
+    private static final ConcurrentHashMap<SpriteDescriptor, ProceduralSpriteData> BY_DESCRIPTOR = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<ProceduralSpriteData, ProceduralSpriteData> INTERNED = new ConcurrentHashMap<>();
+
     public static ProceduralSpriteData generatePlayerSprite(long seed) {
-        ProceduralSpriteData sprite = new ProceduralSpriteData();
+        return cached(new SpriteDescriptor(seed, null, null));
+    }
+
+    public static ProceduralSpriteData generateEnemySprite(long seed, EnemyType type, Color baseColorHint) {
+        return cached(new SpriteDescriptor(seed, type, baseColorHint));
+    }
+
+    private static ProceduralSpriteData cached(SpriteDescriptor descriptor) {
+        ProceduralSpriteData sprite = BY_DESCRIPTOR.get(descriptor);
+        if (sprite != null) {
+            return sprite;
+        }
+        if (BY_DESCRIPTOR.size() >= MAX_CACHED_SPRITES) {
+            BY_DESCRIPTOR.clear();
+            INTERNED.clear();
+        }
+        int[] pixels = descriptor.type == null ? buildPlayerSprite(descriptor.seed)
+                                               : buildEnemySprite(descriptor.seed, descriptor.type, descriptor.colorHint());
+        ProceduralSpriteData built = new ProceduralSpriteData(pixels);
+        ProceduralSpriteData interned = INTERNED.putIfAbsent(built, built);
+        sprite = interned != null ? interned : built;
+        ProceduralSpriteData raced = BY_DESCRIPTOR.putIfAbsent(descriptor, sprite);
+        return raced != null ? raced : sprite;
+    }
+
+    private static void setColorAt(int[] sprite, int x, int y, Color color) {
+        sprite[y * ProceduralSpriteData.SPRITE_GRID_SIZE + x] = color.getRGB();
+    }
+
+    private static int[] buildPlayerSprite(long seed) {
+        int[] sprite = new int[ProceduralSpriteData.SPRITE_GRID_SIZE * ProceduralSpriteData.SPRITE_GRID_SIZE];
         Random random = new Random(seed);
         
         Color primaryColor = new Color(random.nextInt(150) + 50, random.nextInt(150) + 50, random.nextInt(150) + 105); // Ensure some brightness
@@ -15,24 +53,28 @@ public class SpriteGenerator {
 
         // Example: Simple symmetric pattern for player (humanoid-ish)
         // Body
-        for(int y=1; y<4; y++) sprite.setColorAt(2, y, primaryColor); // Central column for body
+        for(int y=1; y<4; y++) setColorAt(sprite, 2, y, primaryColor); // Central column for body
         // Head
-        sprite.setColorAt(2,0, accentColor); 
+        setColorAt(sprite, 2,0, accentColor); 
         // Arms (symmetric)
-        sprite.setColorAt(1,1, primaryColor); 
-        sprite.setColorAt(3,1, primaryColor);
+        setColorAt(sprite, 1,1, primaryColor); 
+        setColorAt(sprite, 3,1, primaryColor);
         // Optionally, extend arms
-        // sprite.setColorAt(0,2, primaryColor.darker()); 
-        // sprite.setColorAt(4,2, primaryColor.darker());
+        // setColorAt(sprite, 0,2, primaryColor.darker()); 
+        // setColorAt(sprite, 4,2, primaryColor.darker());
         // Legs (symmetric)
-        sprite.setColorAt(1,4, primaryColor); 
-        sprite.setColorAt(3,4, primaryColor);
+        setColorAt(sprite, 1,4, primaryColor); 
+        setColorAt(sprite, 3,4, primaryColor);
         
         return sprite;
     }
 
-    public static ProceduralSpriteData generateEnemySprite(long seed, EnemyType type, Color baseColorHint) {
-        ProceduralSpriteData sprite = new ProceduralSpriteData();
+    public static Color enemyBaseColor(EnemyType type) {
+        return type == EnemyType.SCOUT ? Color.CYAN : Color.RED;
+    }
+
+    private static int[] buildEnemySprite(long seed, EnemyType type, Color baseColorHint) {
+        int[] sprite = new int[ProceduralSpriteData.SPRITE_GRID_SIZE * ProceduralSpriteData.SPRITE_GRID_SIZE];
         Random random = new Random(seed);
         Color primaryColor = baseColorHint != null ? baseColorHint : new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
         Color accentColor = primaryColor.darker();
@@ -42,27 +84,60 @@ public class SpriteGenerator {
             for(int r=0; r<ProceduralSpriteData.SPRITE_GRID_SIZE; r++) {
                 for(int c=0; c<ProceduralSpriteData.SPRITE_GRID_SIZE; c++) {
                     if (random.nextDouble() < 0.6) { // 60% chance to fill a part
-                        sprite.setColorAt(c, r, primaryColor);
+                        setColorAt(sprite, c, r, primaryColor);
                     }
                 }
             }
             // Add a central accent or "eye"
-            sprite.setColorAt(2,2,accentColor);
-            sprite.setColorAt(1,2,accentColor.brighter()); // Maybe some side accents
-            sprite.setColorAt(3,2,accentColor.brighter());
+            setColorAt(sprite, 2,2,accentColor);
+            setColorAt(sprite, 1,2,accentColor.brighter()); // Maybe some side accents
+            setColorAt(sprite, 3,2,accentColor.brighter());
 
         } else if (type == EnemyType.SCOUT) { // More sparse/agile looking, maybe V-shape or X-shape
             // Example: V-shape
-            sprite.setColorAt(0,0, primaryColor);
-            sprite.setColorAt(4,0, primaryColor);
-            sprite.setColorAt(1,1, primaryColor.brighter());
-            sprite.setColorAt(3,1, primaryColor.brighter());
-            sprite.setColorAt(2,2, accentColor); // Central point
+            setColorAt(sprite, 0,0, primaryColor);
+            setColorAt(sprite, 4,0, primaryColor);
+            setColorAt(sprite, 1,1, primaryColor.brighter());
+            setColorAt(sprite, 3,1, primaryColor.brighter());
+            setColorAt(sprite, 2,2, accentColor); // Central point
             // Add some more sparse elements
-            sprite.setColorAt(1,3, primaryColor);
-            sprite.setColorAt(3,3, primaryColor);
+            setColorAt(sprite, 1,3, primaryColor);
+            setColorAt(sprite, 3,3, primaryColor);
 
         }
         return sprite;
     }
+
+    // What a sprite is generated from; the cache key.
+    private static final class SpriteDescriptor {
+        private final long seed;
+        private final EnemyType type; // null for the player
+        private final boolean hasColorHint;
+        private final int colorHint;
+
+        SpriteDescriptor(long seed, EnemyType type, Color colorHint) {
+            this.seed = seed;
+            this.type = type;
+            this.hasColorHint = colorHint != null;
+            this.colorHint = colorHint != null ? colorHint.getRGB() : 0;
+        }
+
+        Color colorHint() {
+            return hasColorHint ? new Color(colorHint, true) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SpriteDescriptor)) return false;
+            SpriteDescriptor other = (SpriteDescriptor) o;
+            return seed == other.seed && type == other.type && hasColorHint == other.hasColorHint && colorHint == other.colorHint;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = Long.hashCode(seed);
+            h = h * 31 + (type != null ? type.ordinal() + 1 : 0);
+            return h * 31 + colorHint;
+        }
+    }
 }
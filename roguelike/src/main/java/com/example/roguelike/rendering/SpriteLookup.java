@@ -0,0 +1,51 @@
+package com.example.roguelike.rendering;
+
+import com.example.roguelike.entities.EnemyType;
+
+// Paint-thread front for SpriteGenerator's shared caches. Remembers the sprite of recently drawn
+// (seed, type) pairs in a 4-way set-associative table of primitives, so a hit builds no descriptor
+// and does no concurrent-map lookup; a full set gives up its entries in turn. Not thread-safe: keep
+// one per painter.
+final class SpriteLookup {
+    private static final int PLAYER = -1; // Type code of the player sprite; enemies use their ordinal
+    private static final int WAYS = 4;
+
+    private final long[] seeds;
+    private final int[] types;
+    private final ProceduralSpriteData[] sprites; // null marks an empty entry
+    private final int setMask; // Masks a hash down to the first entry of its set
+    private int nextVictim;
+
+    // Entries is rounded up to a power of two of at least one set.
+    SpriteLookup(int entries) {
+        int size = Integer.highestOneBit(Math.max(WAYS, entries) - 1) << 1;
+        this.seeds = new long[size];
+        this.types = new int[size];
+        this.sprites = new ProceduralSpriteData[size];
+        this.setMask = (size - 1) & ~(WAYS - 1);
+    }
+
+    // A null type means the player sprite.
+    ProceduralSpriteData get(long seed, EnemyType type) {
+        int code = type != null ? type.ordinal() : PLAYER;
+        long h = (seed ^ (code * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        int set = (int) (h >>> 32) & setMask;
+        int index = -1;
+        for (int i = set; i < set + WAYS; i++) {
+            ProceduralSpriteData sprite = sprites[i];
+            if (sprite == null) {
+                index = i;
+            } else if (seeds[i] == seed && types[i] == code) {
+                return sprite;
+            }
+        }
+        if (index < 0) {
+            index = set + (nextVictim++ & (WAYS - 1));
+        }
+        ProceduralSpriteData sprite = SpriteAtlas.spriteFor(seed, type);
+        seeds[index] = seed;
+        types[index] = code;
+        sprites[index] = sprite;
+        return sprite;
+    }
+}
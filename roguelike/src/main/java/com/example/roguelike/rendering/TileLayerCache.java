@@ -0,0 +1,260 @@
+package com.example.roguelike.rendering;
+
+import com.example.roguelike.world.FieldOfView;
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.TileType;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// The map's tiles and grid lines pre-rendered into images, so a frame blits a few images instead of
+// filling every tile. The map is split into chunks of CHUNK_TILES x CHUNK_TILES tiles, each built on
+// first use in two versions: lit, and shaded as out of view. Tiles that change (doors, traps) are
+// queued with invalidate() from any thread and redrawn into their chunks on the next paint.
+// Chunks more than one chunk away from the camera are dropped again, so on a large world only the
+// images around the screen stay in memory.
+class TileLayerCache {
+    private static final int CHUNK_TILES = 32;
+    private static final int TILE_WIDTH = GameMap.TILE_PIXEL_WIDTH;
+    private static final int TILE_HEIGHT = GameMap.TILE_PIXEL_HEIGHT;
+    private static final Color TREASURE_COLOR = new Color(255, 215, 0); // Gold color
+    private static final Color DOOR_OPEN_COLOR = new Color(200, 150, 100);
+    private static final Font GLYPH_FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+    private final GameMap map;
+    private final GraphicsConfiguration config; // null until the panel is on screen; plain images then
+    private final Color outOfViewShade;
+    private final int chunksX;
+    private final int chunksY;
+    private final BufferedImage[] litChunks;
+    private final BufferedImage[] shadedChunks;
+    private int[] builtChunks = new int[16]; // Indices of the chunks currently holding images
+    private int builtCount;
+
+    // Cells changed since the last paint, written by the simulation thread
+    private int[] pendingCells = new int[16];
+    private int pendingCount;
+    private int[] drainedCells = new int[16];
+
+    TileLayerCache(GameMap map, GraphicsConfiguration config, Color outOfViewShade) {
+        this.map = map;
+        this.config = config;
+        this.outOfViewShade = outOfViewShade;
+        this.chunksX = (map.getMapWidthInTiles() + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.chunksY = (map.getMapHeightInTiles() + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.litChunks = new BufferedImage[chunksX * chunksY];
+        this.shadedChunks = new BufferedImage[chunksX * chunksY];
+    }
+
+    synchronized void invalidate(int x, int y) {
+        if (pendingCount == pendingCells.length) {
+            pendingCells = Arrays.copyOf(pendingCells, pendingCount * 2);
+        }
+        pendingCells[pendingCount++] = y * map.getMapWidthInTiles() + x;
+    }
+
+    // Draws the part of the map inside clip. Tiles visible in view come from the lit chunks and the
+    // rest from the shaded ones; a null view draws everything lit.
+    void draw(Graphics g, Rectangle clip, FieldOfView view) {
+        redrawChangedTiles();
+
+        int firstChunkX = Math.max(0, clip.x / (CHUNK_TILES * TILE_WIDTH));
+        int firstChunkY = Math.max(0, clip.y / (CHUNK_TILES * TILE_HEIGHT));
+        int lastChunkX = Math.min(chunksX - 1, (clip.x + clip.width - 1) / (CHUNK_TILES * TILE_WIDTH));
+        int lastChunkY = Math.min(chunksY - 1, (clip.y + clip.height - 1) / (CHUNK_TILES * TILE_HEIGHT));
+        for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+            for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+                BufferedImage image = view != null ? chunk(cx, cy, shadedChunks) : chunk(cx, cy, litChunks);
+                g.drawImage(image, cx * CHUNK_TILES * TILE_WIDTH, cy * CHUNK_TILES * TILE_HEIGHT, null);
+            }
+        }
+        if (view == null) return;
+
+        // Light what the player sees: one blit per horizontal run of visible tiles within a chunk
+        int radius = view.getRadius();
+        int fromX = Math.max(Math.max(0, view.getOriginX() - radius), clip.x / TILE_WIDTH);
+        int toX = Math.min(Math.min(map.getMapWidthInTiles() - 1, view.getOriginX() + radius), (clip.x + clip.width - 1) / TILE_WIDTH);
+        int fromY = Math.max(Math.max(0, view.getOriginY() - radius), clip.y / TILE_HEIGHT);
+        int toY = Math.min(Math.min(map.getMapHeightInTiles() - 1, view.getOriginY() + radius), (clip.y + clip.height - 1) / TILE_HEIGHT);
+        for (int y = fromY; y <= toY; y++) {
+            int x = fromX;
+            while (x <= toX) {
+                if (!view.isVisible(x, y)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                int chunkEnd = (x / CHUNK_TILES + 1) * CHUNK_TILES - 1;
+                while (x + 1 <= toX && x + 1 <= chunkEnd && view.isVisible(x + 1, y)) {
+                    x++;
+                }
+                BufferedImage image = chunk(runStart / CHUNK_TILES, y / CHUNK_TILES, litChunks);
+                int sx = (runStart % CHUNK_TILES) * TILE_WIDTH;
+                int sy = (y % CHUNK_TILES) * TILE_HEIGHT;
+                int dx = runStart * TILE_WIDTH;
+                int dy = y * TILE_HEIGHT;
+                int w = (x - runStart + 1) * TILE_WIDTH;
+                g.drawImage(image, dx, dy, dx + w, dy + TILE_HEIGHT, sx, sy, sx + w, sy + TILE_HEIGHT, null);
+                x++;
+            }
+        }
+    }
+
+    // Drops the images of chunks that lie more than one chunk outside area (world pixels, e.g. the camera).
+    void retainAround(Rectangle area) {
+        int firstChunkX = area.x / (CHUNK_TILES * TILE_WIDTH) - 1;
+        int firstChunkY = area.y / (CHUNK_TILES * TILE_HEIGHT) - 1;
+        int lastChunkX = (area.x + area.width - 1) / (CHUNK_TILES * TILE_WIDTH) + 1;
+        int lastChunkY = (area.y + area.height - 1) / (CHUNK_TILES * TILE_HEIGHT) + 1;
+        for (int k = builtCount - 1; k >= 0; k--) {
+            int index = builtChunks[k];
+            int cx = index % chunksX;
+            int cy = index / chunksX;
+            if (cx < firstChunkX || cx > lastChunkX || cy < firstChunkY || cy > lastChunkY) {
+                litChunks[index] = null;
+                shadedChunks[index] = null;
+                builtChunks[k] = builtChunks[--builtCount];
+            }
+        }
+    }
+
+    private void redrawChangedTiles() {
+        int count;
+        synchronized (this) {
+            count = pendingCount;
+            if (count == 0) return;
+            if (drainedCells.length < count) {
+                drainedCells = new int[pendingCells.length];
+            }
+            System.arraycopy(pendingCells, 0, drainedCells, 0, count);
+            pendingCount = 0;
+        }
+        int width = map.getMapWidthInTiles();
+        for (int k = 0; k < count; k++) {
+            int x = drainedCells[k] % width;
+            int y = drainedCells[k] / width;
+            int index = (y / CHUNK_TILES) * chunksX + x / CHUNK_TILES;
+            if (litChunks[index] == null) continue; // Not built yet; will be drawn fresh when it is
+            int px = (x % CHUNK_TILES) * TILE_WIDTH;
+            int py = (y % CHUNK_TILES) * TILE_HEIGHT;
+            Graphics2D lit = litChunks[index].createGraphics();
+            Graphics2D shaded = shadedChunks[index].createGraphics();
+            paintTile(lit, x, y, px, py);
+            paintTile(shaded, x, y, px, py);
+            shaded.setColor(outOfViewShade);
+            shaded.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+            paintGridLines(shaded, px, py);
+            lit.dispose();
+            shaded.dispose();
+        }
+    }
+
+    // Builds both versions of a chunk the first time either is needed.
+    private BufferedImage chunk(int cx, int cy, BufferedImage[] version) {
+        int index = cy * chunksX + cx;
+        if (litChunks[index] == null) {
+            int tilesX = Math.min(CHUNK_TILES, map.getMapWidthInTiles() - cx * CHUNK_TILES);
+            int tilesY = Math.min(CHUNK_TILES, map.getMapHeightInTiles() - cy * CHUNK_TILES);
+            BufferedImage lit = newImage(tilesX * TILE_WIDTH, tilesY * TILE_HEIGHT);
+            BufferedImage shaded = newImage(lit.getWidth(), lit.getHeight());
+            Graphics2D litGraphics = lit.createGraphics();
+            Graphics2D shadedGraphics = shaded.createGraphics();
+            for (int ty = 0; ty < tilesY; ty++) {
+                for (int tx = 0; tx < tilesX; tx++) {
+                    paintTile(litGraphics, cx * CHUNK_TILES + tx, cy * CHUNK_TILES + ty, tx * TILE_WIDTH, ty * TILE_HEIGHT);
+                }
+            }
+            shadedGraphics.drawImage(lit, 0, 0, null);
+            shadedGraphics.setColor(outOfViewShade);
+            shadedGraphics.fillRect(0, 0, shaded.getWidth(), shaded.getHeight());
+            for (int ty = 0; ty < tilesY; ty++) {
+                for (int tx = 0; tx < tilesX; tx++) {
+                    paintGridLines(shadedGraphics, tx * TILE_WIDTH, ty * TILE_HEIGHT); // Lines stay unshaded
+                }
+            }
+            litGraphics.dispose();
+            shadedGraphics.dispose();
+
+            litChunks[index] = lit;
+            shadedChunks[index] = shaded;
+            if (builtCount == builtChunks.length) {
+                builtChunks = Arrays.copyOf(builtChunks, builtCount * 2);
+            }
+            builtChunks[builtCount++] = index;
+        }
+        return version[index];
+    }
+
+    private BufferedImage newImage(int width, int height) {
+        // A compatible image matches the screen's pixel layout, so blitting it needs no conversion
+        return config != null ? config.createCompatibleImage(width, height, Transparency.OPAQUE)
+                              : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // Draws tile (x, y) with its top-left corner at pixel (px, py), grid lines included.
+    private void paintTile(Graphics2D g, int x, int y, int px, int py) {
+        paintTile(g, map.getTileType(x, y), px, py);
+    }
+
+    static void paintTile(Graphics2D g, TileType tileType, int px, int py) {
+        if (tileType != null) {
+            switch (tileType) {
+                case FLOOR:
+                    g.setColor(Color.LIGHT_GRAY);
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    break;
+                case WALL:
+                    g.setColor(Color.DARK_GRAY);
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    break;
+                case TREASURE_FLOOR:
+                    g.setColor(TREASURE_COLOR);
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    break;
+                case DOOR_CLOSED:
+                    g.setColor(Color.ORANGE);
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    drawGlyph(g, "+", Color.BLACK, px, py);
+                    break;
+                case DOOR_OPEN:
+                    g.setColor(DOOR_OPEN_COLOR);
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    drawGlyph(g, "'", Color.BLACK, px, py);
+                    break;
+                case WATER:
+                    g.setColor(Color.BLUE.darker());
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    break;
+                case TRAP_HIDDEN:
+                    g.setColor(Color.LIGHT_GRAY); // Looks like floor until revealed
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    break;
+                case TRAP_REVEALED:
+                    g.setColor(Color.LIGHT_GRAY); // Base floor color
+                    g.fillRect(px, py, TILE_WIDTH, TILE_HEIGHT);
+                    drawGlyph(g, "X", Color.RED, px, py);
+                    break;
+            }
+        }
+        paintGridLines(g, px, py);
+    }
+
+    // Each tile draws its own top and left edge
+    static void paintGridLines(Graphics2D g, int px, int py) {
+        g.setColor(Color.GRAY);
+        g.drawLine(px, py, px + TILE_WIDTH - 1, py);
+        g.drawLine(px, py, px, py + TILE_HEIGHT - 1);
+    }
+
+    private static void drawGlyph(Graphics2D g, String glyph, Color color, int px, int py) {
+        g.setColor(color);
+        g.setFont(GLYPH_FONT);
+        g.drawString(glyph, px + TILE_WIDTH / 3, py + (2 * TILE_HEIGHT) / 3);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.roguelike.world;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Generates one level per seed in parallel on a fork-join pool. Each level depends only on its own
+// seed, so the output is bit-identical to generating the seeds one by one, in the same order.
+public class BatchLevelGenerator {
+    private static final int SEQUENTIAL_THRESHOLD = 4; // Levels per leaf task
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int numRooms;
+    private final int minRoomSize;
+    private final int maxRoomSize;
+
+    public BatchLevelGenerator(int gridWidth, int gridHeight, int numRooms, int minRoomSize, int maxRoomSize) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.numRooms = numRooms;
+        this.minRoomSize = minRoomSize;
+        this.maxRoomSize = maxRoomSize;
+    }
+
+    public List<DungeonGenerationResult> generate(long[] seeds) {
+        return generate(seeds, ForkJoinPool.commonPool());
+    }
+
+    // Results are returned in seed order.
+    public List<DungeonGenerationResult> generate(long[] seeds, ForkJoinPool pool) {
+        DungeonGenerationResult[] results = new DungeonGenerationResult[seeds.length];
+        pool.invoke(new GenerateRange(seeds, results, 0, seeds.length));
+        return Arrays.asList(results);
+    }
+
+    public DungeonGenerationResult generateOne(long seed) {
+        return new BasicDungeonGenerator().generateLevel(seed, gridWidth, gridHeight, numRooms, minRoomSize, maxRoomSize);
+    }
+
+    private class GenerateRange extends RecursiveAction {
+        private final long[] seeds;
+        private final DungeonGenerationResult[] results;
+        private final int from;
+        private final int to;
+
+        GenerateRange(long[] seeds, DungeonGenerationResult[] results, int from, int to) {
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = generateOne(seeds[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GenerateRange(seeds, results, from, mid), new GenerateRange(seeds, results, mid, to));
+        }
+    }
+}
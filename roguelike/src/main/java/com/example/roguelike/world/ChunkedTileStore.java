@@ -0,0 +1,221 @@
+package com.example.roguelike.world;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Tile storage for worlds much larger than the screen. The world is split into fixed-size chunks that
+// are created on first access and paged out to disk when they fall outside the active area, so memory
+// tracks the area around the player rather than the total world size. Only chunks changed since they
+// were last written go to disk: a clean chunk whose file is current, or an untouched fill chunk, is just
+// dropped. Access is synchronized, since the renderer and the enemy planning workers read tiles while
+// the simulation thread writes them.
+public class ChunkedTileStore implements TileStorage {
+    public static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SHIFT = 6; // log2(CHUNK_SIZE)
+
+    private final int width;
+    private final int height;
+    private final TileType fillType;
+    private final int maxResidentChunks;
+    private final int activeRadiusInChunks;
+    private final Path spillDirectory;
+
+    // Access-ordered, so iteration starts at the least recently used chunk.
+    private final LinkedHashMap<Long, Chunk> residentChunks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> spilledChunks = new HashSet<>(); // Chunks with a file on disk
+    private long chunksWritten;
+
+    private static final class Chunk {
+        final TileGrid tiles;
+        boolean dirty; // Changed since it was loaded or created, so its file (if any) is stale
+
+        Chunk(TileGrid tiles) {
+            this.tiles = tiles;
+        }
+    }
+    private final List<PageOutListener> pageOutListeners = new ArrayList<>();
+
+    public ChunkedTileStore(int width, int height, TileType fillType, int maxResidentChunks, int activeRadiusInChunks) {
+        this.width = width;
+        this.height = height;
+        this.fillType = fillType;
+        this.maxResidentChunks = Math.max(1, maxResidentChunks);
+        this.activeRadiusInChunks = activeRadiusInChunks;
+        try {
+            this.spillDirectory = Files.createTempDirectory("roguelike-chunks");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create chunk spill directory", e);
+        }
+        this.spillDirectory.toFile().deleteOnExit();
+    }
+
+    @Override
+    public int getWidth() { return width; }
+    @Override
+    public int getHeight() { return height; }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    @Override
+    public synchronized TileType getType(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        return chunkFor(x, y).tiles.getTypeAt(localIndex(x, y));
+    }
+
+    @Override
+    public synchronized void setType(int x, int y, TileType type) {
+        if (inBounds(x, y)) {
+            writableChunkFor(x, y).setTypeAt(localIndex(x, y), type);
+        }
+    }
+
+    @Override
+    public synchronized boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && chunkFor(x, y).tiles.isWalkableAt(localIndex(x, y));
+    }
+
+    @Override
+    public synchronized boolean slowsMovement(int x, int y) {
+        return inBounds(x, y) && chunkFor(x, y).tiles.slowsMovementAt(localIndex(x, y));
+    }
+
+    @Override
+    public synchronized int getDamageOnStep(int x, int y) {
+        return inBounds(x, y) ? chunkFor(x, y).tiles.getDamageOnStepAt(localIndex(x, y)) : 0;
+    }
+
+    @Override
+    public synchronized void setTrapDamage(int x, int y, int damage) {
+        if (inBounds(x, y)) {
+            writableChunkFor(x, y).setTrapDamageAt(localIndex(x, y), damage);
+        }
+    }
+
+    @Override
+    public synchronized void revealTrap(int x, int y) {
+        if (inBounds(x, y)) {
+            writableChunkFor(x, y).revealTrapAt(localIndex(x, y));
+        }
+    }
+
+    // Pages out every resident chunk further than the active radius from the given tile.
+    @Override
+    public synchronized void focusOn(int x, int y) {
+        int centerChunkX = x >> CHUNK_SHIFT;
+        int centerChunkY = y >> CHUNK_SHIFT;
+        Iterator<Map.Entry<Long, Chunk>> it = residentChunks.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Chunk> entry = it.next();
+            long key = entry.getKey();
+            int chunkX = (int) (key >> 32);
+            int chunkY = (int) key;
+            if (Math.abs(chunkX - centerChunkX) > activeRadiusInChunks || Math.abs(chunkY - centerChunkY) > activeRadiusInChunks) {
+                spill(key, entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void addPageOutListener(PageOutListener listener) {
+        pageOutListeners.add(listener);
+    }
+
+    public synchronized int getResidentChunkCount() {
+        return residentChunks.size();
+    }
+
+    // Most chunks that stay resident after focusOn: the square of chunks within the active radius.
+    public int getActiveAreaChunkCount() {
+        int side = 2 * activeRadiusInChunks + 1;
+        return Math.min(side * side, maxResidentChunks);
+    }
+
+    // Chunk files written so far; clean chunks paged out don't count
+    public synchronized long getChunksWritten() {
+        return chunksWritten;
+    }
+
+    private TileGrid writableChunkFor(int x, int y) {
+        Chunk chunk = chunkFor(x, y);
+        chunk.dirty = true;
+        return chunk.tiles;
+    }
+
+    private Chunk chunkFor(int x, int y) {
+        long key = chunkKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        Chunk chunk = residentChunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(spilledChunks.contains(key) ? load(key) : new TileGrid(CHUNK_SIZE, CHUNK_SIZE, fillType));
+            residentChunks.put(key, chunk);
+            if (residentChunks.size() > maxResidentChunks) {
+                evictLeastRecentlyUsed();
+            }
+        }
+        return chunk;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Long, Chunk>> it = residentChunks.entrySet().iterator();
+        Map.Entry<Long, Chunk> eldest = it.next();
+        spill(eldest.getKey(), eldest.getValue());
+        it.remove();
+    }
+
+    // Drops the chunk from memory, writing it first only if its file is missing or stale. A chunk
+    // never changed since it was created from fillType needs no file: it is recreated the same way.
+    private void spill(long key, Chunk chunk) {
+        if (chunk.dirty) {
+            Path file = chunkFile(key);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                chunk.tiles.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not page out chunk to " + file, e);
+            }
+            if (spilledChunks.add(key)) {
+                file.toFile().deleteOnExit();
+            }
+            chunksWritten++;
+        }
+        for (PageOutListener listener : pageOutListeners) {
+            listener.pagedOut((int) (key >> 32) << CHUNK_SHIFT, (int) key << CHUNK_SHIFT, CHUNK_SIZE, CHUNK_SIZE);
+        }
+    }
+
+    private TileGrid load(long key) {
+        Path file = chunkFile(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return TileGrid.readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not page in chunk from " + file, e);
+        }
+    }
+
+    private Path chunkFile(long key) {
+        return spillDirectory.resolve("chunk_" + (int) (key >> 32) + "_" + (int) key + ".bin");
+    }
+
+    private static long chunkKey(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    private static int localIndex(int x, int y) {
+        return (y & (CHUNK_SIZE - 1)) * CHUNK_SIZE + (x & (CHUNK_SIZE - 1));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.roguelike.world;
+
+// A read-only 1x1 storage of one tile type, shared by every standalone Tile of that type
+// (e.g. out-of-bounds fallbacks). Writes are ignored, since the instance is shared.
+final class ConstantTileStorage implements TileStorage {
+    private static final ConstantTileStorage[] BY_TYPE = new ConstantTileStorage[TileType.values().length];
+    static {
+        for (TileType type : TileType.values()) {
+            BY_TYPE[type.ordinal()] = new ConstantTileStorage(type);
+        }
+    }
+
+    private final TileType type;
+
+    private ConstantTileStorage(TileType type) {
+        this.type = type;
+    }
+
+    static ConstantTileStorage of(TileType type) {
+        return BY_TYPE[type.ordinal()];
+    }
+
+    @Override
+    public int getWidth() { return 1; }
+    @Override
+    public int getHeight() { return 1; }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return x == 0 && y == 0;
+    }
+
+    @Override
+    public TileType getType(int x, int y) {
+        return inBounds(x, y) ? type : null;
+    }
+
+    @Override
+    public void setType(int x, int y, TileType type) {
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && TileGrid.isWalkableType(type);
+    }
+
+    @Override
+    public boolean slowsMovement(int x, int y) {
+        return inBounds(x, y) && (TileGrid.flagsFor(type) & TileGrid.FLAG_SLOWS_MOVEMENT) != 0;
+    }
+
+    @Override
+    public int getDamageOnStep(int x, int y) {
+        return inBounds(x, y) && type == TileType.TRAP_HIDDEN ? TileGrid.defaultTrapDamage(0) : 0;
+    }
+
+    @Override
+    public void setTrapDamage(int x, int y, int damage) {
+    }
+
+    @Override
+    public void revealTrap(int x, int y) {
+    }
+}
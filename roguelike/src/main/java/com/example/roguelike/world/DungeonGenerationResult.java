@@ -2,5 +2,10 @@ package com.example.roguelike.world;
 
 import java.util.List;
 
-public record DungeonGenerationResult(Tile[][] tiles, List<RectangularRoom> rooms, List<MapFeature> features) {
+public record DungeonGenerationResult(TileStorage tiles, List<RectangularRoom> rooms, MapFeatureRegistry featureRegistry) {
+
+    // All features in placement order
+    public List<MapFeature> features() {
+        return featureRegistry.asList();
+    }
 }
@@ -0,0 +1,178 @@
+package com.example.roguelike.world;
+
+import java.util.Arrays;
+
+// Symmetric recursive shadowcasting over a GameMap, written into a reusable bitset that covers only the
+// square of side 2 * radius + 1 around the viewer, so its size follows the sight radius, not the map.
+// Symmetric means: if A can see floor tile B, then B can see A. That lets one FOV from the player
+// answer "can this enemy see the player?" for every enemy at once.
+// The result is cached for the last (origin, radius) and recomputed only after the viewer moves
+// or a tile inside the view changes opacity (door opened, wall dug out, ...).
+public class FieldOfView implements TileChangeListener {
+    // Quadrants scanned outward from the origin
+    private static final int NORTH = 0;
+    private static final int SOUTH = 1;
+    private static final int EAST = 2;
+    private static final int WEST = 3;
+
+    private final GameMap map;
+    private final int width;
+    private final int height;
+    private long[] visible = new long[0]; // Bit (y - windowTop) * windowSide + (x - windowLeft)
+    private int windowLeft;
+    private int windowTop;
+    private int windowSide;
+    private int[] revealed = new int[64]; // Bits set in the last compute, so clearing is proportional to the view
+    private int revealedCount;
+
+    private int originX;
+    private int originY;
+    private int radius = -1;
+    private boolean valid;
+
+    public FieldOfView(GameMap map) {
+        this.map = map;
+        this.width = map.getMapWidthInTiles();
+        this.height = map.getMapHeightInTiles();
+        map.addTileChangeListener(this);
+    }
+
+    // Recomputes only if the viewer or radius changed, or the map changed inside the view since last time.
+    public void compute(int viewerX, int viewerY, int viewRadius) {
+        if (valid && viewerX == originX && viewerY == originY && viewRadius == radius) {
+            return;
+        }
+        for (int i = 0; i < revealedCount; i++) {
+            int bit = revealed[i];
+            visible[bit >>> 6] &= ~(1L << bit);
+        }
+        revealedCount = 0;
+        originX = viewerX;
+        originY = viewerY;
+        radius = viewRadius;
+        valid = true;
+        windowLeft = originX - radius;
+        windowTop = originY - radius;
+        windowSide = 2 * radius + 1;
+        int words = (int) (((long) windowSide * windowSide + 63) >>> 6);
+        if (visible.length < words) {
+            visible = new long[words]; // All clear; only grows when the radius does
+        }
+
+        if (!map.getTileStorage().inBounds(originX, originY)) {
+            return;
+        }
+        reveal(originX, originY);
+        for (int quadrant = NORTH; quadrant <= WEST; quadrant++) {
+            // Slopes are kept as exact fractions (num / den, den > 0) so the symmetry test never rounds
+            scan(quadrant, 1, -1, 1, 1, 1);
+        }
+    }
+
+    public boolean isVisible(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        int bit = windowBit(x, y);
+        if (bit < 0) return false;
+        return (visible[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+    public int getRadius() { return radius; }
+
+    // One row of a quadrant at the given depth, between the start and end slopes.
+    private void scan(int quadrant, int depth, int startNum, int startDen, int endNum, int endDen) {
+        if (depth > radius) {
+            return;
+        }
+        // Columns whose centre lies within the slopes, rounding ties towards the inside of the row
+        int minCol = Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen);
+        int maxCol = -Math.floorDiv(endDen - 2 * depth * endNum, 2 * endDen);
+
+        boolean hasPrevious = false;
+        boolean previousOpaque = false;
+        for (int col = minCol; col <= maxCol; col++) {
+            int x = cellX(quadrant, depth, col);
+            int y = cellY(quadrant, depth, col);
+            boolean opaque = isOpaque(x, y);
+            boolean symmetric = col * startDen >= depth * startNum && col * endDen <= depth * endNum;
+            if ((opaque || symmetric) && depth * depth + col * col <= radius * radius + radius) {
+                reveal(x, y);
+            }
+            if (hasPrevious && previousOpaque && !opaque) {
+                // Leaving a wall: the next row starts at this tile's left edge
+                startNum = 2 * col - 1;
+                startDen = 2 * depth;
+            }
+            if (hasPrevious && !previousOpaque && opaque) {
+                // Entering a wall: scan the visible gap before it
+                scan(quadrant, depth + 1, startNum, startDen, 2 * col - 1, 2 * depth);
+            }
+            hasPrevious = true;
+            previousOpaque = opaque;
+        }
+        if (hasPrevious && !previousOpaque) {
+            scan(quadrant, depth + 1, startNum, startDen, endNum, endDen);
+        }
+    }
+
+    private int cellX(int quadrant, int depth, int col) {
+        switch (quadrant) {
+            case NORTH:
+            case SOUTH:
+                return originX + col;
+            case EAST:
+                return originX + depth;
+            default:
+                return originX - depth;
+        }
+    }
+
+    private int cellY(int quadrant, int depth, int col) {
+        switch (quadrant) {
+            case NORTH:
+                return originY - depth;
+            case SOUTH:
+                return originY + depth;
+            default:
+                return originY + col;
+        }
+    }
+
+    private boolean isOpaque(int x, int y) {
+        TileType type = map.getTileType(x, y);
+        return type == null || TileGrid.isOpaqueType(type); // Off the map blocks sight
+    }
+
+    private void reveal(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int bit = windowBit(x, y);
+        if (bit < 0) return;
+        long mask = 1L << bit;
+        if ((visible[bit >>> 6] & mask) != 0) return;
+        visible[bit >>> 6] |= mask;
+        if (revealedCount == revealed.length) {
+            revealed = Arrays.copyOf(revealed, revealedCount * 2);
+        }
+        revealed[revealedCount++] = bit;
+    }
+
+    // Bit for (x, y) in the window around the current origin, or -1 outside it.
+    private int windowBit(int x, int y) {
+        int column = x - windowLeft;
+        int row = y - windowTop;
+        if (column < 0 || column >= windowSide || row < 0 || row >= windowSide) return -1;
+        return row * windowSide + column;
+    }
+
+    @Override
+    public void tileChanged(int x, int y, TileType oldType, TileType newType) {
+        if (!valid || TileGrid.isOpaqueType(oldType) == TileGrid.isOpaqueType(newType)) {
+            return;
+        }
+        // Only changes within the view's bounding square can alter what is visible
+        if (Math.abs(x - originX) <= radius && Math.abs(y - originY) <= radius) {
+            valid = false;
+        }
+    }
+}
@@ -2,39 +2,55 @@ package com.example.roguelike.world;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import com.example.roguelike.rendering.GameRenderer; // For TILE_WIDTH/HEIGHT
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class GameMap {
-    private Tile[][] tiles;
+    // On-screen size of one tile. Lives here rather than in the renderer so that the map and
+    // entities don't depend on Swing classes.
+    public static final int TILE_PIXEL_WIDTH = 20;
+    public static final int TILE_PIXEL_HEIGHT = 20;
+
+    private ObservableTileStorage tiles;
+    private WalkabilityMap walkability;
     private int mapWidthInTiles; // e.g., 800 / TILE_WIDTH
     private int mapHeightInTiles; // e.g., 600 / TILE_HEIGHT
     private List<Room> rooms; // Keep track of generated rooms
+    private GenerationStreams streams;
 
     // Constructor now takes pixel dimensions of the game area
     public GameMap(int gameAreaPixelWidth, int gameAreaPixelHeight) {
-        this.mapWidthInTiles = gameAreaPixelWidth / GameRenderer.TILE_WIDTH;
-        this.mapHeightInTiles = gameAreaPixelHeight / GameRenderer.TILE_HEIGHT;
-        this.tiles = new Tile[mapWidthInTiles][mapHeightInTiles];
-        this.rooms = new ArrayList<>();
-        initializeMap();
-        generateRoomsAndCorridors();
-        placeEnvironmentalFeatures(new Random()); // Added call
+        this(gameAreaPixelWidth, gameAreaPixelHeight, ThreadLocalRandom.current().nextLong());
     }
 
-    private void initializeMap() {
-        for (int x = 0; x < mapWidthInTiles; x++) {
-            for (int y = 0; y < mapHeightInTiles; y++) {
-                tiles[x][y] = new Tile(TileType.WALL); // Start with all walls
-            }
-        }
+    public GameMap(int gameAreaPixelWidth, int gameAreaPixelHeight, long seed) {
+        this(new TileGrid(gameAreaPixelWidth / TILE_PIXEL_WIDTH, gameAreaPixelHeight / TILE_PIXEL_HEIGHT, TileType.WALL), 5, seed);
+    }
+
+    // World of arbitrary size backed by the given storage (e.g. a ChunkedTileStore), which must start as all walls.
+    public GameMap(TileStorage storage, int numberOfRooms) {
+        this(storage, numberOfRooms, ThreadLocalRandom.current().nextLong());
     }
 
-    private void generateRoomsAndCorridors() {
-        Random random = new Random();
-        int numberOfRooms = 5; // Generate a few rooms
+    // Every random choice comes from a per-stage stream of the seed, so a seed reproduces the same map.
+    public GameMap(TileStorage storage, int numberOfRooms, long seed) {
+        this.tiles = new ObservableTileStorage(storage);
+        this.mapWidthInTiles = storage.getWidth();
+        this.mapHeightInTiles = storage.getHeight();
+        this.rooms = new ArrayList<>();
+        this.streams = new GenerationStreams(seed);
+        generateRoomsAndCorridors(numberOfRooms);
+        placeEnvironmentalFeatures(streams.stream(GenerationStreams.Stage.ENVIRONMENT)); // Added call
+        this.walkability = new WalkabilityMap(tiles); // Filled in lazily, block by block, as it is queried
+        tiles.addListener(walkability); // Doors opening, traps revealed, etc. patch the bitset
+        tiles.addPageOutListener(walkability); // Blocks leave memory along with their tiles
+    }
+
+    private void generateRoomsAndCorridors(int numberOfRooms) {
+        RandomGenerator random = streams.stream(GenerationStreams.Stage.ROOMS);
         int minRoomSize = 3;
         int maxRoomSize = 7;
+        RoomPlacementIndex placed = new RoomPlacementIndex(mapWidthInTiles, mapHeightInTiles, maxRoomSize + 1);
 
         for (int i = 0; i < numberOfRooms; i++) {
             int roomWidth = random.nextInt(maxRoomSize - minRoomSize + 1) + minRoomSize;
@@ -45,15 +61,8 @@ public class GameMap {
             Room newRoomDetails = new Room(roomX, roomY, roomWidth, roomHeight); 
 
             // Check for overlap with existing rooms using the bounding box
-            boolean overlaps = false;
-            for (Room existingRoom : rooms) {
-                if (newRoomDetails.intersects(existingRoom)) {
-                    overlaps = true;
-                    break;
-                }
-            }
-
-            if (!overlaps) {
+            if (!placed.intersectsAny(roomX, roomY, roomWidth, roomHeight)) {
+                placed.add(roomX, roomY, roomWidth, roomHeight);
                 // Randomly choose room type
                 double roomTypeRoll = random.nextDouble();
                 if (roomTypeRoll < 0.25) { // 25% chance for circular
@@ -86,7 +95,7 @@ public class GameMap {
         for (int x = room.getX(); x < room.getX() + room.getWidth(); x++) {
             for (int y = room.getY(); y < room.getY() + room.getHeight(); y++) {
                 if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
-                   tiles[x][y].setType(TileType.FLOOR); // Use setType as tiles are pre-initialized
+                   tiles.setType(x, y, TileType.FLOOR);
                 }
             }
         }
@@ -101,14 +110,14 @@ public class GameMap {
             for (int y = centerY - radius; y <= centerY + radius; y++) {
                 if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
                     if ((x - centerX) * (x - centerX) + (y - centerY) * (y - centerY) <= radius * radius) {
-                        tiles[x][y].setType(TileType.FLOOR);
+                        tiles.setType(x, y, TileType.FLOOR);
                     }
                 }
             }
         }
     }
 
-    private void createCrossShapedRoomOnMap(Room roomDetails, Random random) {
+    private void createCrossShapedRoomOnMap(Room roomDetails, RandomGenerator random) {
         int centerX = roomDetails.getX() + roomDetails.getWidth() / 2;
         int centerY = roomDetails.getY() + roomDetails.getHeight() / 2;
         int armLength = Math.min(roomDetails.getWidth(), roomDetails.getHeight()) / 2; // Length of each arm from center
@@ -119,7 +128,7 @@ public class GameMap {
             for (int yOffset = -armThickness / 2; yOffset <= armThickness / 2; yOffset++) {
                 int currentY = centerY + yOffset;
                 if (x >= 0 && x < mapWidthInTiles && currentY >= 0 && currentY < mapHeightInTiles) {
-                    tiles[x][currentY].setType(TileType.FLOOR);
+                    tiles.setType(x, currentY, TileType.FLOOR);
                 }
             }
         }
@@ -128,13 +137,13 @@ public class GameMap {
             for (int xOffset = -armThickness / 2; xOffset <= armThickness / 2; xOffset++) {
                 int currentX = centerX + xOffset;
                 if (currentX >= 0 && currentX < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
-                    tiles[currentX][y].setType(TileType.FLOOR);
+                    tiles.setType(currentX, y, TileType.FLOOR);
                 }
             }
         }
     }
     
-    private void makeRoomSpecial(Room room, String featureType, Random random) {
+    private void makeRoomSpecial(Room room, String featureType, RandomGenerator random) {
         if ("fountain".equals(featureType)) {
             int centerX = room.getX() + room.getWidth() / 2;
             int centerY = room.getY() + room.getHeight() / 2;
@@ -146,8 +155,8 @@ public class GameMap {
                         int tileY = centerY -1 + dy;
                          if (tileX >= room.getX() && tileX < room.getX() + room.getWidth() &&
                             tileY >= room.getY() && tileY < room.getY() + room.getHeight() &&
-                            tileX < mapWidthInTiles && tileY < mapHeightInTiles && tiles[tileX][tileY].getType() == TileType.FLOOR) {
-                            tiles[tileX][tileY].setType(TileType.WALL);
+                            tiles.getType(tileX, tileY) == TileType.FLOOR) {
+                            tiles.setType(tileX, tileY, TileType.WALL);
                         }
                     }
                 }
@@ -157,8 +166,8 @@ public class GameMap {
                 for (int y = room.getY(); y < room.getY() + room.getHeight(); y++) {
                     if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
                         // Only change actual floor tiles of the room, not surrounding walls if room is not rectangular
-                        if (tiles[x][y].getType() == TileType.FLOOR) { 
-                            tiles[x][y].setType(TileType.TREASURE_FLOOR);
+                        if (tiles.getType(x, y) == TileType.FLOOR) { 
+                            tiles.setType(x, y, TileType.TREASURE_FLOOR);
                         }
                     }
                 }
@@ -168,7 +177,7 @@ public class GameMap {
 
 
     private void connectRooms(Room room1, Room room2) {
-        Random random = new Random();
+        RandomGenerator random = streams.stream(GenerationStreams.Stage.CORRIDORS);
         int r1centerX = room1.getX() + room1.getWidth() / 2;
         int r1centerY = room1.getY() + room1.getHeight() / 2;
         int r2centerX = room2.getX() + room2.getWidth() / 2;
@@ -190,13 +199,13 @@ public class GameMap {
         for (int x = startX; x <= endX; x++) {
             if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
                 if (x == xTo) { // Endpoint of this segment
-                    if (tiles[x][y] != null && tiles[x][y].getType() == TileType.WALL) {
-                        tiles[x][y].setType(TileType.DOOR_CLOSED);
+                    if (tiles.getType(x, y) == TileType.WALL) {
+                        tiles.setType(x, y, TileType.DOOR_CLOSED);
                     } else { // If it's not a wall (e.g. already floor from another room/corridor), make it floor
-                        tiles[x][y] = new Tile(TileType.FLOOR);
+                        tiles.setType(x, y, TileType.FLOOR);
                     }
                 } else { // Intermediate part of corridor
-                    tiles[x][y] = new Tile(TileType.FLOOR);
+                    tiles.setType(x, y, TileType.FLOOR);
                 }
             }
         }
@@ -208,35 +217,50 @@ public class GameMap {
         for (int y = startY; y <= endY; y++) {
              if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
                 if (y == yTo) { // Endpoint of this segment
-                    if (tiles[x][y] != null && tiles[x][y].getType() == TileType.WALL) {
-                        tiles[x][y].setType(TileType.DOOR_CLOSED);
+                    if (tiles.getType(x, y) == TileType.WALL) {
+                        tiles.setType(x, y, TileType.DOOR_CLOSED);
                     } else {
-                        tiles[x][y] = new Tile(TileType.FLOOR);
+                        tiles.setType(x, y, TileType.FLOOR);
                     }
                 } else { // Intermediate part of corridor
-                    tiles[x][y] = new Tile(TileType.FLOOR);
+                    tiles.setType(x, y, TileType.FLOOR);
                 }
             }
         }
     }
 
     public Tile getTile(int x, int y) {
-        if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles) {
-            return tiles[x][y];
-        }
-        return null; // Or a default non-walkable tile
+        return tiles.tileAt(x, y); // null when out of bounds
+    }
+
+    // Allocation-free lookup for whole-map scans such as rendering.
+    public TileType getTileType(int x, int y) {
+        return tiles.getType(x, y);
     }
 
     public boolean isWalkable(int x, int y) {
-        Tile tile = getTile(x, y);
-        return tile != null && tile.isWalkable();
+        return walkability.isWalkable(x, y);
+    }
+
+    public TileStorage getTileStorage() { return tiles; }
+    public WalkabilityMap getWalkabilityMap() { return walkability; }
+
+    public void addTileChangeListener(TileChangeListener listener) {
+        tiles.addListener(listener);
+    }
+
+    // Called when the player moves so paged storage can release chunks far from the action.
+    public void focusOn(int x, int y) {
+        tiles.focusOn(x, y);
     }
 
     public int getMapWidthInTiles() { return mapWidthInTiles; }
     public int getMapHeightInTiles() { return mapHeightInTiles; }
     public List<Room> getRooms() { return rooms; } // For placing player
+    public long getSeed() { return streams.getRootSeed(); }
+    public GenerationStreams getStreams() { return streams; } // Spawning draws from the ENEMIES/ITEMS stages
 
-    private void placeEnvironmentalFeatures(Random random) {
+    private void placeEnvironmentalFeatures(RandomGenerator random) {
         // Place Water Patches
         int numberOfWaterPatches = 3 + random.nextInt(3); // 3-5 patches
         for (int i = 0; i < numberOfWaterPatches; i++) {
@@ -248,15 +272,15 @@ public class GameMap {
 
             for (int x = startX; x < startX + patchSize; x++) {
                 for (int y = startY; y < startY + patchSize; y++) {
-                    if (x >= 0 && x < mapWidthInTiles && y >= 0 && y < mapHeightInTiles &&
-                        tiles[x][y].getType() == TileType.FLOOR) { // Only replace floor
-                        tiles[x][y] = new Tile(TileType.WATER);
+                    if (tiles.getType(x, y) == TileType.FLOOR) { // Only replace floor
+                        tiles.setType(x, y, TileType.WATER);
                     }
                 }
             }
         }
 
         // Place Traps
+        RandomGenerator trapDamageRandom = streams.stream(GenerationStreams.Stage.TRAPS);
         int numberOfTraps = 5 + random.nextInt(6); // 5-10 traps
         for (int i = 0; i < numberOfTraps; i++) {
             if (rooms.isEmpty()) break;
@@ -274,9 +298,10 @@ public class GameMap {
                 }
             }
             
-            if (!isPlayerStart && trapX < mapWidthInTiles && trapY < mapHeightInTiles &&
-                (tiles[trapX][trapY].getType() == TileType.FLOOR || tiles[trapX][trapY].getType() == TileType.TREASURE_FLOOR)) {
-                tiles[trapX][trapY] = new Tile(TileType.TRAP_HIDDEN);
+            TileType trapBase = tiles.getType(trapX, trapY);
+            if (!isPlayerStart && (trapBase == TileType.FLOOR || trapBase == TileType.TREASURE_FLOOR)) {
+                tiles.setType(trapX, trapY, TileType.TRAP_HIDDEN);
+                tiles.setTrapDamage(trapX, trapY, 10 + trapDamageRandom.nextInt(11)); // Trap deals 10-20 damage
             }
         }
     }
@@ -12,7 +12,8 @@ import java.util.Random;
 
 public class GeneratedLevel implements LevelMap {
 
-    private Tile[][] tiles;
+    private static final Tile OUT_OF_BOUNDS = new Tile(TileType.WALL); // Read-only, so one serves every caller
+    private TileStorage tiles;
     private int gridWidth;
     private int gridHeight;
     private int playerStartX;
@@ -37,7 +38,7 @@ public class GeneratedLevel implements LevelMap {
             this.playerStartX = gridWidth / 2;
             this.playerStartY = gridHeight / 2;
             if (playerStartX >= 0 && playerStartX < gridWidth && playerStartY >= 0 && playerStartY < gridHeight) {
-                tiles[playerStartX][playerStartY] = new Tile(TileType.FLOOR);
+                tiles.setType(playerStartX, playerStartY, TileType.FLOOR);
             }
         } else {
             // Player starts in the center of the first room
@@ -46,8 +47,8 @@ public class GeneratedLevel implements LevelMap {
             this.playerStartY = playerRoom.getCenterY();
             // Ensure player start is actually FLOOR (it should be by generator logic)
             if (playerStartX >= 0 && playerStartX < gridWidth && playerStartY >= 0 && playerStartY < gridHeight) { // Bounds check
-                if (tiles[playerStartX][playerStartY] == null || tiles[playerStartX][playerStartY].getType() != TileType.FLOOR) {
-                    tiles[playerStartX][playerStartY] = new Tile(TileType.FLOOR); // Force it if not
+                if (tiles.getType(playerStartX, playerStartY) != TileType.FLOOR) {
+                    tiles.setType(playerStartX, playerStartY, TileType.FLOOR); // Force it if not
                 }
             }
 
@@ -62,7 +63,7 @@ public class GeneratedLevel implements LevelMap {
                         int enemyX = room.x + 1 + random.nextInt(Math.max(1, room.width - 2));
                         int enemyY = room.y + 1 + random.nextInt(Math.max(1, room.height - 2));
                         if (enemyX >= 0 && enemyX < gridWidth && enemyY >= 0 && enemyY < gridHeight && // Bounds check
-                            tiles[enemyX][enemyY] != null && tiles[enemyX][enemyY].getType() == TileType.FLOOR) {
+                            tiles.getType(enemyX, enemyY) == TileType.FLOOR) {
                             // Modifying to satisfy new Enemy constructor for compilation purposes.
                             // Passing null for player as it's not available here.
                             enemies.add(new Enemy(enemyX, enemyY, random.nextLong(), null)); 
@@ -76,7 +77,7 @@ public class GeneratedLevel implements LevelMap {
                     int itemX = room.x + 1 + random.nextInt(Math.max(1, room.width - 2));
                     int itemY = room.y + 1 + random.nextInt(Math.max(1, room.height - 2));
                     if (itemX >= 0 && itemX < gridWidth && itemY >= 0 && itemY < gridHeight && // Bounds check
-                        tiles[itemX][itemY] != null && tiles[itemX][itemY].getType() == TileType.FLOOR) {
+                        tiles.getType(itemX, itemY) == TileType.FLOOR) {
                         // Ensure item does not spawn on player's start or where an enemy just spawned
                         boolean positionOccupied = (itemX == playerStartX && itemY == playerStartY);
                         for(Enemy e : enemies) {
@@ -109,10 +110,10 @@ public class GeneratedLevel implements LevelMap {
     @Override
     public Tile getTileAt(int x, int y) {
         if (x >= 0 && x < gridWidth && y >= 0 && y < gridHeight) {
-            return tiles[x][y];
+            return tiles.tileAt(x, y);
         }
         // Return a WALL tile for out-of-bounds, as VOID is removed from TileType
-        return new Tile(TileType.WALL); 
+        return OUT_OF_BOUNDS;
     }
 
     @Override
@@ -130,9 +131,8 @@ public class GeneratedLevel implements LevelMap {
         if (x < 0 || x >= gridWidth || y < 0 || y < gridHeight) {
             return false; // Out of bounds
         }
-        Tile tile = tiles[x][y];
-        // A tile is walkable if it's not null, and its type is FLOOR
-        return tile != null && tile.getType() == TileType.FLOOR;
+        // A tile is walkable if its type is FLOOR
+        return tiles.getType(x, y) == TileType.FLOOR;
     }
 
     @Override
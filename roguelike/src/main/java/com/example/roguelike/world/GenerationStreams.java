@@ -0,0 +1,38 @@
+package com.example.roguelike.world;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Splits one root seed into independent, reproducible random streams, one per generation stage,
+// so the same seed always produces the same level no matter which thread generates it.
+// Streams are split off in Stage declaration order: append new stages to keep existing seeds stable.
+public final class GenerationStreams {
+    public enum Stage {
+        ROOMS,
+        CORRIDORS,
+        ENVIRONMENT,
+        TRAPS,
+        ENEMIES,
+        ITEMS
+    }
+
+    private final long rootSeed;
+    private final SplittableRandom[] streams;
+
+    public GenerationStreams(long rootSeed) {
+        this.rootSeed = rootSeed;
+        SplittableRandom root = new SplittableRandom(rootSeed);
+        this.streams = new SplittableRandom[Stage.values().length];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = root.split();
+        }
+    }
+
+    public long getRootSeed() {
+        return rootSeed;
+    }
+
+    public RandomGenerator stream(Stage stage) {
+        return streams[stage.ordinal()];
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.roguelike.world;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact, versioned binary level format for DungeonGenerationResult. All values are big-endian.
+//
+//   header   32 bytes: magic, version, width, height, trapCount, roomCount, featureCount, reserved
+//   types    width * height bytes, row-major TileType ordinals
+//   traps    trapCount * (int cellIndex, int damage), sorted by cellIndex
+//   rooms    roomCount * (int x, int y, int width, int height)
+//   features featureCount * (int x, int y, int typeOrdinal, char closed, char open, int argb)
+//
+// The tile layer sits at a fixed offset so open() can map the file and read tiles with zero copy.
+// Tile flags are not stored: they follow from the type. open() checks the header and the small
+// sections but never walks the tiles; a bad tile byte is reported when it is first read.
+public final class LevelFile {
+    public static final int MAGIC = 0x44474C56; // "DGLV"
+    public static final int VERSION = 2; // 1 also stored a flags layer
+    private static final int HEADER_BYTES = 32;
+    private static final int TRAP_BYTES = 8;
+    private static final int ROOM_BYTES = 16;
+    private static final int FEATURE_BYTES = 20;
+
+    private LevelFile() {
+    }
+
+    public static void write(DungeonGenerationResult level, Path path) throws IOException {
+        TileStorage tiles = level.tiles();
+        int width = tiles.getWidth();
+        int height = tiles.getHeight();
+        List<int[]> traps = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (tiles.getType(x, y) == TileType.TRAP_HIDDEN) {
+                    traps.add(new int[] {y * width + x, tiles.getDamageOnStep(x, y)});
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(traps.size());
+            out.writeInt(level.rooms().size());
+            out.writeInt(level.features().size());
+            out.writeInt(0); // reserved
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    out.writeByte(tiles.getType(x, y).ordinal());
+                }
+            }
+            for (int[] trap : traps) {
+                out.writeInt(trap[0]);
+                out.writeInt(trap[1]);
+            }
+            for (RectangularRoom room : level.rooms()) {
+                out.writeInt(room.x);
+                out.writeInt(room.y);
+                out.writeInt(room.width);
+                out.writeInt(room.height);
+            }
+            for (MapFeature feature : level.features()) {
+                out.writeInt(feature.getX());
+                out.writeInt(feature.getY());
+                out.writeInt(feature.getType().ordinal());
+                out.writeChar(feature.getDisplayCharClosed());
+                out.writeChar(feature.getDisplayCharOpen());
+                out.writeInt(feature.getArgb());
+            }
+        }
+    }
+
+    // Maps the file read-only. Tiles are served straight from the mapping; only traps, rooms and
+    // features are read, so opening costs the same whatever the map size.
+    public static DungeonGenerationResult open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level file: " + path);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported level file version " + version + ": " + path);
+        }
+        int width = buffer.getInt(8);
+        int height = buffer.getInt(12);
+        int trapCount = buffer.getInt(16);
+        int roomCount = buffer.getInt(20);
+        int featureCount = buffer.getInt(24);
+        if (width < 0 || height < 0 || trapCount < 0 || roomCount < 0 || featureCount < 0) {
+            throw new IOException("Corrupt level file header (negative size or count): " + path);
+        }
+
+        // Sections are laid out in longs so hostile sizes can't wrap around; the total must fit the file
+        long cells = (long) width * height;
+        long typesOffset = HEADER_BYTES;
+        long trapsOffset = typesOffset + cells;
+        long roomsOffset = trapsOffset + (long) trapCount * TRAP_BYTES;
+        long featuresOffset = roomsOffset + (long) roomCount * ROOM_BYTES;
+        if (buffer.capacity() < featuresOffset + (long) featureCount * FEATURE_BYTES) {
+            throw new IOException("Truncated level file: " + path);
+        }
+        // From here on every offset is below the buffer's int capacity
+        checkTraps(buffer, (int) trapsOffset, trapCount, (int) cells, path);
+
+        MappedTileLayer tiles = new MappedTileLayer(buffer, width, height, (int) typesOffset, (int) trapsOffset, trapCount, path.toString());
+        return new DungeonGenerationResult(tiles, readRooms(buffer, (int) roomsOffset, roomCount),
+                                           new MapFeatureRegistry(readFeatures(buffer, (int) featuresOffset, featureCount, path)));
+    }
+
+    // Trap cells must lie on the map and be strictly ascending, as MappedTileLayer binary-searches them.
+    private static void checkTraps(ByteBuffer buffer, int offset, int count, int cells, Path path) throws IOException {
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            int cell = buffer.getInt(offset + i * TRAP_BYTES);
+            if (cell <= previous || cell >= cells) {
+                throw new IOException("Corrupt level file (bad trap cell " + cell + "): " + path);
+            }
+            previous = cell;
+        }
+    }
+
+    private static List<RectangularRoom> readRooms(ByteBuffer buffer, int offset, int count) {
+        List<RectangularRoom> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int at = offset + i * ROOM_BYTES;
+            rooms.add(new RectangularRoom(buffer.getInt(at), buffer.getInt(at + 4), buffer.getInt(at + 8), buffer.getInt(at + 12)));
+        }
+        return rooms;
+    }
+
+    private static List<MapFeature> readFeatures(ByteBuffer buffer, int offset, int count, Path path) throws IOException {
+        MapFeatureType[] types = MapFeatureType.values();
+        List<MapFeature> features = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int at = offset + i * FEATURE_BYTES;
+            int ordinal = buffer.getInt(at + 8);
+            if (ordinal < 0 || ordinal >= types.length) {
+                throw new IOException("Corrupt level file (bad feature type " + ordinal + "): " + path);
+            }
+            features.add(new MapFeature(buffer.getInt(at), buffer.getInt(at + 4), types[ordinal],
+                                        buffer.getChar(at + 12), buffer.getChar(at + 14), buffer.getInt(at + 16)));
+        }
+        return features;
+    }
+}
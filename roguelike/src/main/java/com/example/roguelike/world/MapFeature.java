@@ -3,7 +3,6 @@ package com.example.roguelike.world;
 import com.example.roguelike.entities.GameEntity;
 import com.example.roguelike.entities.Player; // For instanceof check
 import com.example.roguelike.entities.Enemy;  // For instanceof check
-import java.awt.Color;
 
 public class MapFeature {
     private int x;
@@ -11,17 +10,17 @@ public class MapFeature {
     private MapFeatureType type;
     private char displayCharClosed;
     private char displayCharOpen;
-    private Color color;
+    private int argb; // Packed 0xAARRGGBB; rendering turns it into a Color
     private boolean isSolid; 
     // blocksMovement can be the same as isSolid for these features
 
-    public MapFeature(int x, int y, MapFeatureType initialType, char charClosed, char charOpen, Color color) {
+    public MapFeature(int x, int y, MapFeatureType initialType, char charClosed, char charOpen, int argb) {
         this.x = x;
         this.y = y;
         this.type = initialType;
         this.displayCharClosed = charClosed;
         this.displayCharOpen = charOpen;
-        this.color = color;
+        this.argb = argb;
         updateSolidState();
     }
 
@@ -44,7 +43,9 @@ public class MapFeature {
     public int getX() { return x; }
     public int getY() { return y; }
     public MapFeatureType getType() { return type; }
-    public Color getColor() { return color; }
+    public int getArgb() { return argb; }
+    public char getDisplayCharClosed() { return displayCharClosed; }
+    public char getDisplayCharOpen() { return displayCharOpen; }
 
     public char getCurrentDisplayChar() {
         switch (type) {
@@ -0,0 +1,125 @@
+package com.example.roguelike.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+// MapFeatures indexed by packed tile coordinate for O(1) "what is on this tile" lookups,
+// while still iterating in insertion order like the plain list it replaces. The index is an
+// open-addressing table of primitive keys (linear probing, kept at most half full) holding the first
+// feature on each tile; further features on the same tile are chained through nextOnTile. Lookups
+// allocate nothing, as generation asks about every tile it carves.
+public class MapFeatureRegistry implements Iterable<MapFeature> {
+    private static final int NONE = -1;
+
+    private final List<MapFeature> inOrder = new ArrayList<>();
+    private long[] slotKeys = new long[16];
+    private int[] slotFirst = emptySlots(16); // Index into inOrder of the tile's first feature, or NONE
+    private int usedSlots;
+    private int[] nextOnTile = new int[16]; // By index into inOrder: the next feature on the same tile, or NONE
+
+    public MapFeatureRegistry() {
+    }
+
+    public MapFeatureRegistry(List<MapFeature> features) {
+        for (MapFeature feature : features) {
+            add(feature);
+        }
+    }
+
+    public void add(MapFeature feature) {
+        int index = inOrder.size();
+        inOrder.add(feature);
+        if (index == nextOnTile.length) {
+            nextOnTile = Arrays.copyOf(nextOnTile, index * 2);
+        }
+        nextOnTile[index] = NONE;
+
+        long key = key(feature.getX(), feature.getY());
+        int slot = slotOf(key);
+        if (slotFirst[slot] == NONE) {
+            slotKeys[slot] = key;
+            slotFirst[slot] = index;
+            if (++usedSlots * 2 > slotKeys.length) {
+                grow();
+            }
+        } else { // Almost every tile holds at most one feature, so the chain is short
+            int last = slotFirst[slot];
+            while (nextOnTile[last] != NONE) {
+                last = nextOnTile[last];
+            }
+            nextOnTile[last] = index;
+        }
+    }
+
+    public boolean hasFeatureAt(int x, int y) {
+        return slotFirst[slotOf(key(x, y))] != NONE;
+    }
+
+    // First feature placed on the tile, or null.
+    public MapFeature getAt(int x, int y) {
+        int first = slotFirst[slotOf(key(x, y))];
+        return first != NONE ? inOrder.get(first) : null;
+    }
+
+    // Matches the feature's current type, so a door that has been opened is found as DOOR_OPEN.
+    public MapFeature getAt(int x, int y, MapFeatureType type) {
+        for (int i = slotFirst[slotOf(key(x, y))]; i != NONE; i = nextOnTile[i]) {
+            MapFeature feature = inOrder.get(i);
+            if (feature.getType() == type) {
+                return feature;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return inOrder.size();
+    }
+
+    public List<MapFeature> asList() {
+        return Collections.unmodifiableList(inOrder);
+    }
+
+    @Override
+    public Iterator<MapFeature> iterator() {
+        return asList().iterator();
+    }
+
+    // The key's slot if present, otherwise the empty slot where it would go
+    private int slotOf(long key) {
+        int mask = slotKeys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (slotFirst[slot] != NONE && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = slotKeys;
+        int[] oldFirst = slotFirst;
+        slotKeys = new long[oldKeys.length * 2];
+        slotFirst = emptySlots(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldFirst[i] != NONE) {
+                int slot = slotOf(oldKeys[i]);
+                slotKeys[slot] = oldKeys[i];
+                slotFirst[slot] = oldFirst[i];
+            }
+        }
+    }
+
+    private static int[] emptySlots(int size) {
+        int[] slots = new int[size];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.roguelike.world;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tile storage read straight out of a read-only mapped level file (see LevelFile) without copying.
+// Gameplay changes (doors opening, traps revealed) go into a small per-cell overlay, so the mapped
+// pages stay clean and can be shared between processes. Tile bytes are checked as they are read, not
+// up front, so a corrupt one surfaces as an UncheckedIOException from the first lookup that hits it.
+public class MappedTileLayer implements TileStorage {
+    private static final TileType[] TYPES = TileType.values();
+
+    private final ByteBuffer buffer;
+    private final int width;
+    private final int height;
+    private final int typesOffset;
+    private final int trapsOffset;
+    private final int trapCount;
+    private final String source; // Where the mapping came from, for error messages
+
+    private BitSet modifiedCells; // Allocated on first write
+    private final Map<Integer, TileType> modifiedTypes = new HashMap<>();
+    private final Map<Integer, Integer> addedTrapDamage = new HashMap<>();
+
+    // Traps are stored as (cell index, damage) int pairs sorted by cell index.
+    MappedTileLayer(ByteBuffer buffer, int width, int height, int typesOffset, int trapsOffset, int trapCount, String source) {
+        this.buffer = buffer;
+        this.width = width;
+        this.height = height;
+        this.typesOffset = typesOffset;
+        this.trapsOffset = trapsOffset;
+        this.trapCount = trapCount;
+        this.source = source;
+    }
+
+    @Override
+    public int getWidth() { return width; }
+    @Override
+    public int getHeight() { return height; }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    @Override
+    public TileType getType(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        return typeAt(y * width + x);
+    }
+
+    @Override
+    public void setType(int x, int y, TileType type) {
+        if (!inBounds(x, y)) return;
+        int index = y * width + x;
+        TileType previous = typeAt(index);
+        if (modifiedCells == null) {
+            modifiedCells = new BitSet(width * height);
+        }
+        modifiedCells.set(index);
+        modifiedTypes.put(index, type);
+        if (type == TileType.TRAP_HIDDEN && previous != TileType.TRAP_HIDDEN) {
+            addedTrapDamage.put(index, TileGrid.defaultTrapDamage(index)); // 10-20, the same for a cell on every run
+        } else if (type != TileType.TRAP_HIDDEN) {
+            addedTrapDamage.remove(index);
+        }
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && TileGrid.isWalkableType(typeAt(y * width + x));
+    }
+
+    @Override
+    public boolean slowsMovement(int x, int y) {
+        if (!inBounds(x, y)) return false;
+        return (TileGrid.flagsFor(typeAt(y * width + x)) & TileGrid.FLAG_SLOWS_MOVEMENT) != 0;
+    }
+
+    @Override
+    public int getDamageOnStep(int x, int y) {
+        if (!inBounds(x, y)) return 0;
+        int index = y * width + x;
+        if (typeAt(index) != TileType.TRAP_HIDDEN) return 0;
+        Integer added = addedTrapDamage.get(index);
+        return added != null ? added : storedTrapDamage(index);
+    }
+
+    @Override
+    public void setTrapDamage(int x, int y, int damage) {
+        if (getType(x, y) == TileType.TRAP_HIDDEN) {
+            addedTrapDamage.put(y * width + x, damage);
+        }
+    }
+
+    @Override
+    public void revealTrap(int x, int y) {
+        if (getType(x, y) == TileType.TRAP_HIDDEN) {
+            setType(x, y, TileType.TRAP_REVEALED); // Trap triggers once
+        }
+    }
+
+    private TileType typeAt(int index) {
+        if (isModified(index)) {
+            return modifiedTypes.get(index);
+        }
+        int ordinal = buffer.get(typesOffset + index);
+        if (ordinal < 0 || ordinal >= TYPES.length) {
+            throw new UncheckedIOException(new IOException("Corrupt level file (bad tile type " + ordinal + " at cell " + index + "): " + source));
+        }
+        return TYPES[ordinal];
+    }
+
+    private boolean isModified(int index) {
+        return modifiedCells != null && modifiedCells.get(index);
+    }
+
+    // Binary search over the mapped trap section.
+    private int storedTrapDamage(int index) {
+        int low = 0;
+        int high = trapCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = buffer.getInt(trapsOffset + mid * 8);
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(trapsOffset + mid * 8 + 4);
+            }
+        }
+        return 0;
+    }
+}
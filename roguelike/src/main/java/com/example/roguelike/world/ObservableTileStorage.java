@@ -0,0 +1,97 @@
+package com.example.roguelike.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Wraps another TileStorage and tells listeners about every type change, including changes
+// made through Tile views, so derived layers (walkability, visibility, render caches) stay in sync.
+public class ObservableTileStorage implements TileStorage {
+    private final TileStorage delegate;
+    private final List<TileChangeListener> listeners = new ArrayList<>();
+
+    public ObservableTileStorage(TileStorage delegate) {
+        this.delegate = delegate;
+    }
+
+    public void addListener(TileChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TileChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getWidth() { return delegate.getWidth(); }
+    @Override
+    public int getHeight() { return delegate.getHeight(); }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return delegate.inBounds(x, y);
+    }
+
+    @Override
+    public TileType getType(int x, int y) {
+        return delegate.getType(x, y);
+    }
+
+    @Override
+    public void setType(int x, int y, TileType type) {
+        if (listeners.isEmpty()) {
+            delegate.setType(x, y, type);
+            return;
+        }
+        TileType oldType = delegate.getType(x, y);
+        delegate.setType(x, y, type);
+        if (oldType != null && oldType != type) {
+            fireTileChanged(x, y, oldType, type);
+        }
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return delegate.isWalkable(x, y);
+    }
+
+    @Override
+    public boolean slowsMovement(int x, int y) {
+        return delegate.slowsMovement(x, y);
+    }
+
+    @Override
+    public int getDamageOnStep(int x, int y) {
+        return delegate.getDamageOnStep(x, y);
+    }
+
+    @Override
+    public void setTrapDamage(int x, int y, int damage) {
+        delegate.setTrapDamage(x, y, damage);
+    }
+
+    @Override
+    public void revealTrap(int x, int y) {
+        TileType oldType = delegate.getType(x, y);
+        delegate.revealTrap(x, y);
+        TileType newType = delegate.getType(x, y);
+        if (oldType != newType) {
+            fireTileChanged(x, y, oldType, newType);
+        }
+    }
+
+    @Override
+    public void focusOn(int x, int y) {
+        delegate.focusOn(x, y);
+    }
+
+    @Override
+    public void addPageOutListener(PageOutListener listener) {
+        delegate.addPageOutListener(listener);
+    }
+
+    private void fireTileChanged(int x, int y, TileType oldType, TileType newType) {
+        for (TileChangeListener listener : listeners) {
+            listener.tileChanged(x, y, oldType, newType);
+        }
+    }
+}
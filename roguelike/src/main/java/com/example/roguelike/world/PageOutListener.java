@@ -0,0 +1,8 @@
+package com.example.roguelike.world;
+
+// Notified when paged storage writes a block of tiles out of memory, so layers derived from those
+// tiles (walkability, render caches) can drop their copies and rebuild them when the block is next used.
+@FunctionalInterface
+public interface PageOutListener {
+    void pagedOut(int x, int y, int width, int height);
+}
@@ -0,0 +1,86 @@
+package com.example.roguelike.world;
+
+import java.util.Arrays;
+
+// Uniform bucket grid over placed room rectangles, so a placement attempt only tests the rooms in the
+// buckets it overlaps instead of every room placed so far. Uses the same 1-tile margin rule as
+// Room.intersects / RectangularRoom.intersects, so generators place exactly the same rooms as before.
+public class RoomPlacementIndex {
+    private final int bucketSize;
+    private final int bucketsX;
+    private final int bucketsY;
+    private final int[][] bucketRooms; // Room ids per bucket
+    private final int[] bucketCounts;
+
+    // Room rectangles by id, four ints each: x, y, width, height
+    private int[] rects = new int[64];
+    private int roomCount;
+
+    public RoomPlacementIndex(int mapWidth, int mapHeight, int bucketSize) {
+        this.bucketSize = Math.max(1, bucketSize);
+        this.bucketsX = Math.max(1, (mapWidth + this.bucketSize - 1) / this.bucketSize);
+        this.bucketsY = Math.max(1, (mapHeight + this.bucketSize - 1) / this.bucketSize);
+        this.bucketRooms = new int[bucketsX * bucketsY][];
+        this.bucketCounts = new int[bucketsX * bucketsY];
+    }
+
+    public boolean intersectsAny(int x, int y, int width, int height) {
+        // Expand by the margin so rooms that would merely touch are found too
+        int minBucketX = bucketX(x - 1);
+        int maxBucketX = bucketX(x + width);
+        int minBucketY = bucketY(y - 1);
+        int maxBucketY = bucketY(y + height);
+        for (int by = minBucketY; by <= maxBucketY; by++) {
+            for (int bx = minBucketX; bx <= maxBucketX; bx++) {
+                int bucket = by * bucketsX + bx;
+                int[] ids = bucketRooms[bucket];
+                for (int i = 0; i < bucketCounts[bucket]; i++) {
+                    int at = ids[i] * 4;
+                    int ox = rects[at];
+                    int oy = rects[at + 1];
+                    int ow = rects[at + 2];
+                    int oh = rects[at + 3];
+                    if (x < ox + ow + 1 && x + width + 1 > ox && y < oy + oh + 1 && y + height + 1 > oy) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public void add(int x, int y, int width, int height) {
+        int id = roomCount++;
+        if (id * 4 + 4 > rects.length) {
+            rects = Arrays.copyOf(rects, rects.length * 2);
+        }
+        rects[id * 4] = x;
+        rects[id * 4 + 1] = y;
+        rects[id * 4 + 2] = width;
+        rects[id * 4 + 3] = height;
+        for (int by = bucketY(y); by <= bucketY(y + height - 1); by++) {
+            for (int bx = bucketX(x); bx <= bucketX(x + width - 1); bx++) {
+                int bucket = by * bucketsX + bx;
+                int[] ids = bucketRooms[bucket];
+                if (ids == null) {
+                    ids = bucketRooms[bucket] = new int[4];
+                } else if (bucketCounts[bucket] == ids.length) {
+                    ids = bucketRooms[bucket] = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[bucketCounts[bucket]++] = id;
+            }
+        }
+    }
+
+    public int size() {
+        return roomCount;
+    }
+
+    private int bucketX(int x) {
+        return Math.min(bucketsX - 1, Math.max(0, x / bucketSize));
+    }
+
+    private int bucketY(int y) {
+        return Math.min(bucketsY - 1, Math.max(0, y / bucketSize));
+    }
+}
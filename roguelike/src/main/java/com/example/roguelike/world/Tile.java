@@ -1,63 +1,50 @@
 package com.example.roguelike.world;
 
-import java.util.Random; // Added for trap damage
-
+// View onto a single cell of a TileStorage. All tile state lives in the storage's packed arrays.
 public class Tile {
-    private TileType type;
-    private boolean slowsMovement = false; // Added
-    private int damageOnStep = 0; // Added
+    private final TileStorage storage;
+    private final int x;
+    private final int y;
 
+    // Standalone tile (e.g. out-of-bounds fallbacks). Backed by a shared read-only 1x1 storage per
+    // type, so it costs no grid of its own and setType() or revealTrap() on it change nothing.
     public Tile(TileType type) {
-        this.type = type;
-        if (type == TileType.WATER) {
-            this.slowsMovement = true;
-        }
-        if (type == TileType.TRAP_HIDDEN) {
-            // Trap deals 10-20 damage. Random instance should be created here or passed.
-            this.damageOnStep = 10 + new Random().nextInt(11); 
-        }
+        this(ConstantTileStorage.of(type), 0, 0);
+    }
+
+    Tile(TileStorage storage, int x, int y) {
+        this.storage = storage;
+        this.x = x;
+        this.y = y;
     }
 
     public TileType getType() {
-        return type;
+        return storage.getType(x, y);
     }
 
     public boolean isWalkable() {
-        return type == TileType.FLOOR || type == TileType.DOOR_OPEN ||
-               type == TileType.TREASURE_FLOOR || type == TileType.WATER ||
-               type == TileType.TRAP_HIDDEN || type == TileType.TRAP_REVEALED;
+        return storage.isWalkable(x, y);
     }
 
     public boolean isDoor() {
+        TileType type = getType();
         return type == TileType.DOOR_CLOSED || type == TileType.DOOR_OPEN;
     }
 
     public void setType(TileType newType) {
-        this.type = newType;
-        // Reset effects if type changes away from an effect-inducing type
-        if (this.type != TileType.WATER) {
-            this.slowsMovement = false;
-        }
-        // If it's no longer a hidden trap, damage should be 0 (or handled by revealTrap)
-        if (this.type != TileType.TRAP_HIDDEN && this.type != TileType.TRAP_REVEALED) {
-             // Damage is set to 0 by revealTrap. If setType is used to change from TRAP_HIDDEN
-             // to something else directly, damage might remain. For now, rely on revealTrap.
-        }
+        storage.setType(x, y, newType);
     }
 
     // Getters for effects
-    public boolean slowsMovement() { 
-        return slowsMovement; 
+    public boolean slowsMovement() {
+        return storage.slowsMovement(x, y);
     }
 
-    public int getDamageOnStep() { 
-        return damageOnStep; 
+    public int getDamageOnStep() {
+        return storage.getDamageOnStep(x, y);
     }
 
     public void revealTrap() {
-        if (type == TileType.TRAP_HIDDEN) {
-            setType(TileType.TRAP_REVEALED);
-            this.damageOnStep = 0; // Trap triggers once
-        }
+        storage.revealTrap(x, y);
     }
 }
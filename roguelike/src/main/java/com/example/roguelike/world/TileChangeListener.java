@@ -0,0 +1,7 @@
+package com.example.roguelike.world;
+
+// Notified after a tile's type changes, e.g. a door opens or a trap is revealed.
+@FunctionalInterface
+public interface TileChangeListener {
+    void tileChanged(int x, int y, TileType oldType, TileType newType);
+}
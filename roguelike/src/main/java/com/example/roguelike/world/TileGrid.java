@@ -0,0 +1,245 @@
+package com.example.roguelike.world;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Flat, row-major tile storage: one byte per cell for the TileType ordinal plus one byte of flags.
+// Per-trap damage is rare, so it lives in a small side table of cell indices kept sorted, allocated
+// only once the grid holds a trap.
+public class TileGrid implements TileStorage {
+    public static final byte FLAG_SLOWS_MOVEMENT = 1;
+    public static final byte FLAG_DOOR_OPEN = 1 << 1;
+    public static final byte FLAG_TRAP_ARMED = 1 << 2;
+    public static final byte FLAG_TRAP_REVEALED = 1 << 3;
+
+    private static final TileType[] TYPES = TileType.values();
+    private static final boolean[] WALKABLE = new boolean[TYPES.length];
+    static {
+        for (TileType type : TYPES) {
+            WALKABLE[type.ordinal()] = type == TileType.FLOOR || type == TileType.DOOR_OPEN ||
+                                       type == TileType.TREASURE_FLOOR || type == TileType.WATER ||
+                                       type == TileType.TRAP_HIDDEN || type == TileType.TRAP_REVEALED;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final byte[] types;
+    private final byte[] flags;
+    private int[] trapCells; // Sorted; null until the first trap
+    private int[] trapDamages;
+    private int trapCount;
+
+    public TileGrid(int width, int height, TileType fill) {
+        this.width = width;
+        this.height = height;
+        this.types = new byte[width * height];
+        this.flags = new byte[width * height];
+        fill(fill);
+    }
+
+    public void fill(TileType type) {
+        Arrays.fill(types, (byte) type.ordinal());
+        Arrays.fill(flags, flagsFor(type));
+        trapCount = 0;
+        if (type == TileType.TRAP_HIDDEN) {
+            for (int i = 0; i < types.length; i++) {
+                putTrapDamage(i, defaultTrapDamage(i)); // Ascending, so each is an append
+            }
+        }
+    }
+
+    @Override
+    public int getWidth() { return width; }
+    @Override
+    public int getHeight() { return height; }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    // Returns null for out-of-bounds coordinates, mirroring the old Tile[][] lookups.
+    @Override
+    public TileType getType(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        return TYPES[types[indexOf(x, y)]];
+    }
+
+    public TileType getTypeAt(int index) {
+        return TYPES[types[index]];
+    }
+
+    @Override
+    public void setType(int x, int y, TileType type) {
+        if (inBounds(x, y)) {
+            setTypeAt(indexOf(x, y), type);
+        }
+    }
+
+    public void setTypeAt(int index, TileType type) {
+        TileType previous = TYPES[types[index]];
+        types[index] = (byte) type.ordinal();
+        flags[index] = flagsFor(type);
+        if (type == TileType.TRAP_HIDDEN) {
+            if (previous != TileType.TRAP_HIDDEN) {
+                putTrapDamage(index, defaultTrapDamage(index)); // Trap deals 10-20 damage
+            }
+        } else {
+            removeTrapDamage(index); // Revealed or replaced traps no longer deal damage
+        }
+    }
+
+    public byte getFlagsAt(int index) {
+        return flags[index];
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && WALKABLE[types[indexOf(x, y)]];
+    }
+
+    public boolean isWalkableAt(int index) {
+        return WALKABLE[types[index]];
+    }
+
+    public static boolean isWalkableType(TileType type) {
+        return WALKABLE[type.ordinal()];
+    }
+
+    // Walls and closed doors block line of sight; everything else can be seen through.
+    public static boolean isOpaqueType(TileType type) {
+        return type == TileType.WALL || type == TileType.DOOR_CLOSED;
+    }
+
+    public boolean slowsMovementAt(int index) {
+        return (flags[index] & FLAG_SLOWS_MOVEMENT) != 0;
+    }
+
+    public int getDamageOnStepAt(int index) {
+        int slot = findTrap(index);
+        return slot >= 0 ? trapDamages[slot] : 0;
+    }
+
+    public void setTrapDamageAt(int index, int damage) {
+        if (getTypeAt(index) == TileType.TRAP_HIDDEN) {
+            putTrapDamage(index, damage);
+        }
+    }
+
+    public void revealTrapAt(int index) {
+        if (getTypeAt(index) == TileType.TRAP_HIDDEN) {
+            setTypeAt(index, TileType.TRAP_REVEALED); // Trap triggers once
+        }
+    }
+
+    @Override
+    public boolean slowsMovement(int x, int y) {
+        return inBounds(x, y) && slowsMovementAt(indexOf(x, y));
+    }
+
+    @Override
+    public int getDamageOnStep(int x, int y) {
+        return inBounds(x, y) ? getDamageOnStepAt(indexOf(x, y)) : 0;
+    }
+
+    @Override
+    public void setTrapDamage(int x, int y, int damage) {
+        if (inBounds(x, y)) {
+            setTrapDamageAt(indexOf(x, y), damage);
+        }
+    }
+
+    @Override
+    public void revealTrap(int x, int y) {
+        if (inBounds(x, y)) {
+            revealTrapAt(indexOf(x, y));
+        }
+    }
+
+    // Layout: width, height, type bytes, flag bytes, trap count, then (index, damage) pairs.
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        out.write(types);
+        out.write(flags);
+        out.writeInt(trapCount);
+        for (int i = 0; i < trapCount; i++) {
+            out.writeInt(trapCells[i]);
+            out.writeInt(trapDamages[i]);
+        }
+    }
+
+    public static TileGrid readFrom(DataInput in) throws IOException {
+        TileGrid grid = new TileGrid(in.readInt(), in.readInt(), TileType.WALL);
+        in.readFully(grid.types);
+        in.readFully(grid.flags);
+        int trapCount = in.readInt();
+        for (int i = 0; i < trapCount; i++) {
+            grid.putTrapDamage(in.readInt(), in.readInt());
+        }
+        return grid;
+    }
+
+    // Damage for a trap nobody assigned one to: 10-20, fixed per cell. GameMap sets traps' damage
+    // from its seeded stream, so this only shows for traps made some other way.
+    static int defaultTrapDamage(int index) {
+        int h = index * 0x9E3779B9;
+        return 10 + Math.floorMod(h ^ (h >>> 16), 11);
+    }
+
+    // Slot of the cell in trapCells, or -(insertion point) - 1
+    private int findTrap(int index) {
+        return trapCount == 0 ? -1 : Arrays.binarySearch(trapCells, 0, trapCount, index);
+    }
+
+    private void putTrapDamage(int index, int damage) {
+        int slot = findTrap(index);
+        if (slot >= 0) {
+            trapDamages[slot] = damage;
+            return;
+        }
+        slot = -slot - 1;
+        if (trapCells == null) {
+            trapCells = new int[4];
+            trapDamages = new int[4];
+        } else if (trapCount == trapCells.length) {
+            trapCells = Arrays.copyOf(trapCells, trapCount * 2);
+            trapDamages = Arrays.copyOf(trapDamages, trapCount * 2);
+        }
+        System.arraycopy(trapCells, slot, trapCells, slot + 1, trapCount - slot);
+        System.arraycopy(trapDamages, slot, trapDamages, slot + 1, trapCount - slot);
+        trapCells[slot] = index;
+        trapDamages[slot] = damage;
+        trapCount++;
+    }
+
+    private void removeTrapDamage(int index) {
+        int slot = findTrap(index);
+        if (slot < 0) return;
+        System.arraycopy(trapCells, slot + 1, trapCells, slot, trapCount - slot - 1);
+        System.arraycopy(trapDamages, slot + 1, trapDamages, slot, trapCount - slot - 1);
+        trapCount--;
+    }
+
+    static byte flagsFor(TileType type) {
+        switch (type) {
+            case WATER:
+                return FLAG_SLOWS_MOVEMENT;
+            case DOOR_OPEN:
+                return FLAG_DOOR_OPEN;
+            case TRAP_HIDDEN:
+                return FLAG_TRAP_ARMED;
+            case TRAP_REVEALED:
+                return FLAG_TRAP_REVEALED;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.roguelike.world;
+
+// Common tile access used by GameMap, implemented by the flat TileGrid and the paged ChunkedTileStore.
+public interface TileStorage {
+    int getWidth();
+    int getHeight();
+    boolean inBounds(int x, int y);
+    TileType getType(int x, int y); // null when out of bounds
+    void setType(int x, int y, TileType type);
+    boolean isWalkable(int x, int y);
+    boolean slowsMovement(int x, int y);
+    int getDamageOnStep(int x, int y);
+    void setTrapDamage(int x, int y, int damage); // Only applies to hidden traps
+    void revealTrap(int x, int y);
+
+    // Lightweight view onto a single cell; cheap to create and holds no tile state of its own.
+    default Tile tileAt(int x, int y) {
+        return inBounds(x, y) ? new Tile(this, x, y) : null;
+    }
+
+    // Hint that gameplay is centred on (x, y); paged storage may drop far-away data.
+    default void focusOn(int x, int y) {
+    }
+
+    // Storage held fully in memory never pages out, so its listeners are never called.
+    default void addPageOutListener(PageOutListener listener) {
+    }
+}
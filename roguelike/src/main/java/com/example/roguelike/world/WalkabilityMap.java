@@ -0,0 +1,104 @@
+package com.example.roguelike.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Passability layer as bitsets, one per CHUNK_SIZE x CHUNK_SIZE block of the map with one long per
+// block row (bit x of word y), so a walkability test is a single bit lookup. Blocks are built from the
+// tiles the first time they are queried and dropped again when paged storage writes those tiles out,
+// so on a paged world the layer only covers the area being played. Tile changes patch loaded blocks.
+// Queries may come from several threads at once (parallel enemy planning); building is idempotent.
+public class WalkabilityMap implements TileChangeListener, PageOutListener {
+    private static final int CHUNK_SIZE = ChunkedTileStore.CHUNK_SIZE; // Same blocks as the paged store
+    private static final int CHUNK_SHIFT = 6; // log2(CHUNK_SIZE); one long covers a block row
+
+    private final TileStorage tiles;
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final AtomicReferenceArray<long[]> chunks;
+    private final AtomicInteger loadedChunkCount = new AtomicInteger();
+    private final AtomicLong pageOuts = new AtomicLong(); // Lets a build notice its tiles were paged out meanwhile
+
+    public WalkabilityMap(TileStorage tiles) {
+        this.tiles = tiles;
+        this.width = tiles.getWidth();
+        this.height = tiles.getHeight();
+        this.chunksX = (width + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        int chunksY = (height + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        this.chunks = new AtomicReferenceArray<>(chunksX * chunksY);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        long[] rows = chunkFor(x, y);
+        return (rows[y & (CHUNK_SIZE - 1)] & (1L << x)) != 0;
+    }
+
+    public void setWalkable(int x, int y, boolean walkable) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        long[] rows = chunks.get((y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT));
+        if (rows == null) return; // Built from the tiles, which already hold the change, when next queried
+        if (walkable) {
+            rows[y & (CHUNK_SIZE - 1)] |= 1L << x;
+        } else {
+            rows[y & (CHUNK_SIZE - 1)] &= ~(1L << x);
+        }
+    }
+
+    // Blocks currently held in memory.
+    public int getLoadedChunkCount() {
+        return loadedChunkCount.get();
+    }
+
+    @Override
+    public void tileChanged(int x, int y, TileType oldType, TileType newType) {
+        setWalkable(x, y, TileGrid.isWalkableType(newType));
+    }
+
+    @Override
+    public void pagedOut(int x, int y, int areaWidth, int areaHeight) {
+        pageOuts.incrementAndGet();
+        for (int cy = y >> CHUNK_SHIFT; cy <= (y + areaHeight - 1) >> CHUNK_SHIFT; cy++) {
+            for (int cx = x >> CHUNK_SHIFT; cx <= (x + areaWidth - 1) >> CHUNK_SHIFT; cx++) {
+                if (cx < chunksX && cy * chunksX + cx < chunks.length() && chunks.getAndSet(cy * chunksX + cx, null) != null) {
+                    loadedChunkCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private long[] chunkFor(int x, int y) {
+        int index = (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+        long[] rows = chunks.get(index);
+        if (rows != null) return rows;
+
+        long pageOutsBefore = pageOuts.get();
+        int originX = x & ~(CHUNK_SIZE - 1);
+        int originY = y & ~(CHUNK_SIZE - 1);
+        rows = new long[CHUNK_SIZE];
+        for (int row = 0; row < CHUNK_SIZE && originY + row < height; row++) {
+            long word = 0;
+            for (int column = 0; column < CHUNK_SIZE && originX + column < width; column++) {
+                if (tiles.isWalkable(originX + column, originY + row)) {
+                    word |= 1L << column;
+                }
+            }
+            rows[row] = word;
+        }
+        if (chunks.compareAndSet(index, null, rows)) {
+            loadedChunkCount.incrementAndGet();
+            // Tiles paged out while we read them: don't keep a block the storage no longer holds
+            if (pageOuts.get() != pageOutsBefore && chunks.compareAndSet(index, rows, null)) {
+                loadedChunkCount.decrementAndGet();
+            }
+            return rows;
+        }
+        long[] winner = chunks.get(index); // Another thread built it first
+        return winner != null ? winner : rows;
+    }
+}
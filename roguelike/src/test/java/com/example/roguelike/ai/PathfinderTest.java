@@ -0,0 +1,69 @@
+package com.example.roguelike.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.roguelike.world.GameMap;
+import com.example.roguelike.world.TileGrid;
+import com.example.roguelike.world.TileStorage;
+import com.example.roguelike.world.TileType;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PathfinderTest {
+    private static final int SIZE = 48; // Inside SEARCH_RADIUS, so only walls decide reachability
+    private static final int BUDGET = SIZE * SIZE * 4; // Never the reason a search gives up
+
+    // Random wall noise at the given density; every cell is set, so the map's own generation doesn't matter.
+    private static GameMap randomMap(long seed, double wallDensity) {
+        GameMap map = new GameMap(new TileGrid(SIZE, SIZE, TileType.WALL), 0, seed);
+        TileStorage tiles = map.getTileStorage();
+        Random random = new Random(seed);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                tiles.setType(x, y, random.nextDouble() < wallDensity ? TileType.WALL : TileType.FLOOR);
+            }
+        }
+        return map;
+    }
+
+    @Test
+    void jumpPointSearchFindsPathsAsShortAsAStar() {
+        Pathfinder aStar = new Pathfinder(Pathfinder.Algorithm.A_STAR, BUDGET);
+        Pathfinder jps = new Pathfinder(Pathfinder.Algorithm.JUMP_POINT_SEARCH, BUDGET);
+        int[] path = new int[SIZE * SIZE];
+        int found = 0;
+        for (long seed = 0; seed < 200; seed++) {
+            GameMap map = randomMap(seed, 0.15 + (seed % 4) * 0.1);
+            Random random = new Random(~seed);
+            for (int query = 0; query < 20; query++) {
+                int startX = random.nextInt(SIZE), startY = random.nextInt(SIZE);
+                int targetX = random.nextInt(SIZE), targetY = random.nextInt(SIZE);
+                if (!map.isWalkable(startX, startY) || !map.isWalkable(targetX, targetY)) continue;
+
+                int expected = aStar.findPath(map, startX, startY, targetX, targetY, path);
+                int actual = jps.findPath(map, startX, startY, targetX, targetY, path);
+                assertEquals(expected, actual, "seed " + seed + ": " + startX + "," + startY + " -> " + targetX + "," + targetY);
+                if (actual > 0) {
+                    assertValidPath(map, startX, startY, targetX, targetY, path, actual);
+                    found++;
+                }
+            }
+        }
+        assertTrue(found > 500, "too few reachable queries to mean anything: " + found);
+    }
+
+    // Each step moves one cell orthogonally onto a walkable cell, ending on the target.
+    private static void assertValidPath(GameMap map, int startX, int startY, int targetX, int targetY, int[] path, int length) {
+        int x = startX, y = startY;
+        for (int i = 0; i < length; i++) {
+            int nextX = path[i] % SIZE, nextY = path[i] / SIZE;
+            assertEquals(1, Math.abs(nextX - x) + Math.abs(nextY - y), "step " + i + " is not to a neighbour");
+            assertTrue(map.isWalkable(nextX, nextY), "step " + i + " enters a wall");
+            x = nextX;
+            y = nextY;
+        }
+        assertEquals(targetX, x);
+        assertEquals(targetY, y);
+    }
+}
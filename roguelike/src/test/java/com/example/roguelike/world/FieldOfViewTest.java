@@ -0,0 +1,75 @@
+package com.example.roguelike.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FieldOfViewTest {
+    private static final int SIZE = 40;
+    private static final int RADIUS = 10;
+
+    private static GameMap randomMap(long seed, double wallDensity) {
+        GameMap map = new GameMap(new TileGrid(SIZE, SIZE, TileType.WALL), 0, seed);
+        TileStorage tiles = map.getTileStorage();
+        Random random = new Random(seed);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                tiles.setType(x, y, random.nextDouble() < wallDensity ? TileType.WALL : TileType.FLOOR);
+            }
+        }
+        return map;
+    }
+
+    @Test
+    void floorTilesSeeEachOther() {
+        int pairs = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            GameMap map = randomMap(seed, 0.3);
+            FieldOfView fromA = new FieldOfView(map);
+            FieldOfView fromB = new FieldOfView(map);
+            Random random = new Random(~seed);
+            for (int query = 0; query < 400; query++) {
+                int ax = random.nextInt(SIZE), ay = random.nextInt(SIZE);
+                int bx = ax + random.nextInt(2 * RADIUS + 1) - RADIUS, by = ay + random.nextInt(2 * RADIUS + 1) - RADIUS;
+                if (map.getTileType(ax, ay) != TileType.FLOOR || map.getTileType(bx, by) != TileType.FLOOR) continue;
+
+                fromA.compute(ax, ay, RADIUS);
+                fromB.compute(bx, by, RADIUS);
+                assertEquals(fromA.isVisible(bx, by), fromB.isVisible(ax, ay),
+                             "seed " + seed + ": " + ax + "," + ay + " and " + bx + "," + by);
+                pairs++;
+            }
+        }
+        assertTrue(pairs > 1000, "too few floor pairs to mean anything: " + pairs);
+    }
+
+    @Test
+    void cachedViewMatchesFreshComputeAfterTileChange() {
+        for (long seed = 0; seed < 20; seed++) {
+            GameMap map = randomMap(seed, 0.3);
+            TileStorage tiles = map.getTileStorage();
+            FieldOfView cached = new FieldOfView(map);
+            Random random = new Random(~seed);
+            int viewerX = SIZE / 2, viewerY = SIZE / 2;
+            tiles.setType(viewerX, viewerY, TileType.FLOOR);
+            cached.compute(viewerX, viewerY, RADIUS);
+            for (int change = 0; change < 50; change++) {
+                int x = viewerX + random.nextInt(2 * RADIUS + 1) - RADIUS, y = viewerY + random.nextInt(2 * RADIUS + 1) - RADIUS;
+                if (x == viewerX && y == viewerY) continue;
+                tiles.setType(x, y, map.getTileType(x, y) == TileType.WALL ? TileType.FLOOR : TileType.WALL);
+
+                cached.compute(viewerX, viewerY, RADIUS); // Same origin and radius: only the change can trigger a recompute
+                FieldOfView fresh = new FieldOfView(map);
+                fresh.compute(viewerX, viewerY, RADIUS);
+                for (int cy = viewerY - RADIUS - 1; cy <= viewerY + RADIUS + 1; cy++) {
+                    for (int cx = viewerX - RADIUS - 1; cx <= viewerX + RADIUS + 1; cx++) {
+                        assertEquals(fresh.isVisible(cx, cy), cached.isVisible(cx, cy),
+                                     "seed " + seed + ", change " + change + " at " + x + "," + y + ": cell " + cx + "," + cy);
+                    }
+                }
+            }
+        }
+    }
+}